@@ -5,6 +5,7 @@ plugins {
     id("org.openjfx.javafxplugin") version "0.1.0"
     id("org.beryx.jlink") version "3.0.1"
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "edu.cs300.dominos"
@@ -27,12 +28,88 @@ javafx {
     modules = listOf("javafx.controls", "javafx.graphics", "javafx.media")
 }
 
+// writes the tile table from the image names so no folder is listed at runtime
+val generateTileCatalog by tasks.registering {
+    val imageDir = layout.projectDirectory.dir("src/main/resources/assets/dominoImages")
+    val outputDir = layout.buildDirectory.dir("generated/sources/tileCatalog/java/main")
+    inputs.dir(imageDir)
+    outputs.dir(outputDir)
+    doLast {
+        val pattern = Regex("""Domino-(\d+)\.(\d+)\.png""", RegexOption.IGNORE_CASE)
+        val tiles = imageDir.asFile.listFiles().orEmpty()
+            .mapNotNull { f -> pattern.matchEntire(f.name)?.let { Triple(it.groupValues[1].toInt(), it.groupValues[2].toInt(), f.name) } }
+            .sortedWith(compareBy({ it.first }, { it.second }))
+        require(tiles.size == 28) { "expected 28 domino images, found ${tiles.size}" }
+
+        val target = outputDir.get().file("models/TileCatalog.java").asFile
+        target.parentFile.mkdirs()
+        target.writeText(buildString {
+            appendLine("package models;")
+            appendLine()
+            appendLine("// generated by generateTileCatalog from assets/dominoImages, do not edit")
+            appendLine("final class TileCatalog {")
+            appendLine("    private TileCatalog() {}")
+            appendLine()
+            appendLine("    static final int[] UPPER = {" + tiles.joinToString(", ") { it.first.toString() } + "};")
+            appendLine("    static final int[] LOWER = {" + tiles.joinToString(", ") { it.second.toString() } + "};")
+            appendLine("    static final String[] IMAGES = {")
+            tiles.forEach { appendLine("        \"/assets/dominoImages/${it.third}\",") }
+            appendLine("    };")
+            appendLine("}")
+        })
+    }
+}
+
+sourceSets.main {
+    java.srcDir(generateTileCatalog)
+}
+
 dependencies {
     implementation("org.openjfx:javafx-controls:21.0.4")
     implementation("org.openjfx:javafx-graphics:21.0.4")
     implementation("org.openjfx:javafx-media:21.0.4")
 }
 
+// headless ai-vs-ai games, e.g. gradle simulate --args="--games 100000 --ai expectimax --checkpoint sim.properties"
+tasks.register<JavaExec>("simulate") {
+    group = "application"
+    description = "Runs AI-vs-AI self-play games without JavaFX and prints win rates."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("app.Simulate")
+}
+
+// re-checks a game journal against the current rules, e.g. gradle replay --args="--journal games.djnl"
+tasks.register<JavaExec>("replay") {
+    group = "application"
+    description = "Replays a binary game journal without JavaFX and reports illegal steps."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("app.Replay")
+}
+
+// plays seeded games checking the fast engine paths against slow ones, e.g. gradle selfCheck --args="--games 20000"
+tasks.register<JavaExec>("selfCheck") {
+    group = "verification"
+    description = "Checks incremental engine state against full recomputation over seeded random games."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("app.SelfCheck")
+}
+
+// the repo has no unit tests; the engine self-check stands in for them
+tasks.named("check") {
+    dependsOn("selfCheck")
+}
+
+// microbenchmarks in src/jmh/java: gradle jmh -PbenchLabel=before, then compare
+// build/results/jmh/before.json with a later run's json
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    val label = providers.gradleProperty("benchLabel").getOrElse("results")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/$label.json"))
+    // e.g. gradle jmh -Pbench=EngineBenchmark runs one class
+    providers.gradleProperty("bench").orNull?.let { includes.set(listOf(it)) }
+}
+
 tasks.shadowJar {
     archiveBaseName.set("CS300-Dominos")
     archiveClassifier.set("")
@@ -0,0 +1,103 @@
+package bench;
+
+import models.BoardEngine;
+import models.CDominoes;
+import models.Orientation;
+import models.TileSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import util.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    board engine hot paths on positions from early, middle and late game
+    legal move search stands in for the old findLegalPlacementAnywhere,
+    and fits for matchesAnchor
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    // tiles already on the board
+    @Param({"1", "6", "12", "18"})
+    public int plays;
+
+    private BoardEngine board;
+    private long handMask;
+    private List<BoardEngine.Anchor> anchors;
+    private CDominoes[] hand;
+    private BoardEngine.Move move;
+
+    @Setup
+    public void setUp() {
+        GameState state = Positions.afterPlays(plays, 42);
+        board = state.board();
+        handMask = state.handOf(state.toMove()) | state.boneyardMask();
+        anchors = new ArrayList<>(board.anchors());
+        hand = new CDominoes[TileSet.count(handMask)];
+        int i = 0;
+        for (long rest = handMask; rest != 0; rest &= rest - 1) hand[i++] = CDominoes.of(Long.numberOfTrailingZeros(rest));
+        List<BoardEngine.Move> moves = board.legalMoves(handMask);
+        move = moves.isEmpty() ? null : moves.get(0);
+    }
+
+    @Benchmark
+    public void rebuildAnchors(Blackhole sink) {
+        board.rebuildAnchors();
+        sink.consume(board.hash());
+    }
+
+    @Benchmark
+    public List<BoardEngine.Move> legalMoves() {
+        return board.legalMoves(handMask);
+    }
+
+    @Benchmark
+    public long playableTileMask() {
+        return board.playableTileMask();
+    }
+
+    @Benchmark
+    public int fitsEveryAnchor() {
+        int fits = 0;
+        for (BoardEngine.Anchor anchor : anchors) {
+            for (CDominoes tile : hand) {
+                for (Orientation facing : Orientation.values()) {
+                    if (board.fits(tile, facing, anchor)) fits++;
+                }
+            }
+        }
+        return fits;
+    }
+
+    @Benchmark
+    public long playAndUndo() {
+        if (move == null) return 0;
+        board.play(move);
+        long hash = board.hash();
+        board.undo();
+        return hash;
+    }
+
+    @Benchmark
+    public BoardEngine snapshot() {
+        return board.snapshot();
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.CDominoes;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ConsoleLogger;
+import util.GameState;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    console line building for draws and placements, caller plus writer
+    each call logs a batch and waits for the writer to format it all,
+    so the ring never fills; dropped lines are reported and should stay 0
+    stdout goes to a null sink so the terminal does not set the pace
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    // well under the ring's capacity
+    private static final int BATCH = 256;
+
+    private PrintStream realOut;
+    private CDominoes drawn;
+    private BoardEngine.Placed placed;
+    private BoardEngine.Placed neighbor;
+
+    // lines the ring turned away during the iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Drops {
+        private long before;
+        public long dropped;
+
+        @Setup(Level.Iteration)
+        public void mark() {
+            before = ConsoleLogger.dropped();
+            dropped = 0;
+        }
+
+        // reads the count after each batch
+        void update() {
+            dropped = ConsoleLogger.dropped() - before;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        realOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        GameState state = Positions.afterPlays(2, 42);
+        List<BoardEngine.Placed> tiles = state.board().placed();
+        neighbor = tiles.get(0);
+        placed = tiles.get(1);
+        drawn = CDominoes.of(20);
+    }
+
+    // keeps the move log from growing across iterations
+    @Setup(Level.Iteration)
+    public void clearLog() {
+        ConsoleLogger.startGame(0);
+        ConsoleLogger.flush(1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(realOut);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void logDraw(Drops drops) {
+        for (int i = 0; i < BATCH; i++) ConsoleLogger.logDraw(Side.PLAYER, drawn);
+        ConsoleLogger.flush(1000);
+        drops.update();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void logPlacedAgainst(Drops drops) {
+        for (int i = 0; i < BATCH; i++) ConsoleLogger.logPlacedAgainst(Side.AI, placed, neighbor);
+        ConsoleLogger.flush(1000);
+        drops.update();
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import models.AvailablePieces;
+import models.CDominoes;
+import models.Orientation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    boneyard draws and tile facing, the per-move costs outside the board
+    facing lookups replace the old rotateDomino image swap
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+
+    private AvailablePieces boneyard;
+    private CDominoes tile;
+    private Orientation facing;
+
+    @Setup
+    public void setUp() {
+        boneyard = new AvailablePieces(CDominoes.createGameDominoes(), new SplittableRandom(7));
+        tile = CDominoes.of(17);
+        facing = Orientation.VERTICAL_UP;
+    }
+
+    // a draw and its return keep the boneyard size steady
+    @Benchmark
+    public CDominoes drawRandom() {
+        CDominoes drawn = boneyard.drawRandom();
+        boneyard.putBack(drawn);
+        return drawn;
+    }
+
+    @Benchmark
+    public int rotateAndRead() {
+        facing = facing.next();
+        return tile.firstValue(facing) * 7 + tile.secondValue(facing);
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.CDominoes;
+import models.GameRandom;
+import models.Hand;
+import models.TileSet;
+import util.GameState;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+    seeded game positions for benchmarks, so every run measures the same boards
+    a position after n plays comes from random legal play on a fixed deal
+*/
+final class Positions {
+
+    private Positions() {}
+
+    // deals a fresh seeded game
+    static GameState deal(long seed) {
+        GameRandom random = new GameRandom(seed);
+        Hand hand = new Hand(random);
+        long boneyard = TileSet.EMPTY;
+        for (CDominoes tile : hand.leftoverDominoes()) boneyard = TileSet.add(boneyard, tile.getId());
+        Side first = random.coin().nextBoolean() ? Side.PLAYER : Side.AI;
+        return new GameState(new BoardEngine(), hand.getPlayerMask(), hand.getAiMask(), boneyard, first);
+    }
+
+    // first seeded game still running after the given number of plays
+    static GameState afterPlays(int plays, long seed) {
+        for (long attempt = seed; ; attempt++) {
+            GameState state = deal(attempt);
+            SplittableRandom random = new SplittableRandom(attempt);
+            int made = 0;
+            while (made < plays && !state.isOver()) {
+                if (step(state, random)) made++;
+            }
+            if (!state.isOver()) return state;
+        }
+    }
+
+    // one draw, pass or random play; true when a tile was played
+    static boolean step(GameState state, SplittableRandom random) {
+        if (state.mustDraw()) {
+            state.drawRandom(random);
+            return false;
+        }
+        if (!state.canPlay()) {
+            state.pass();
+            return false;
+        }
+        List<BoardEngine.Move> moves = state.legalMoves();
+        state.play(moves.get(random.nextInt(moves.size())));
+        return true;
+    }
+}
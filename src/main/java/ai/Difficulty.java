@@ -0,0 +1,28 @@
+package ai;
+
+/*
+    how long the ai may think per move; the turn delay is the thinking time
+    searches stop at the budget and play the best move found so far
+*/
+public enum Difficulty {
+    EASY(1000),
+    NORMAL(3000),
+    HARD(6000);
+
+    private final long budgetMillis;
+
+    Difficulty(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+    }
+
+    public long budgetMillis() { return budgetMillis; }
+
+    // reads -Ddominoes.difficulty=easy|normal|hard, normal by default
+    public static Difficulty fromSystemProperties() {
+        String name = System.getProperty("dominoes.difficulty", "normal");
+        for (Difficulty level : values()) {
+            if (level.name().equalsIgnoreCase(name)) return level;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,186 @@
+package ai;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.TileSet;
+import util.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/*
+    exact win/block/loss solver for the empty-boneyard endgame
+    with no boneyard the unseen tiles are exactly the opponent hand, so play is perfect-information
+    negamax with alpha-beta, ordered moves and a transposition table keyed on the zobrist hash
+*/
+public final class EndgameSolver {
+
+    public static final int WIN = 1, BLOCK = 0, LOSS = -1;
+    // value of a solve that ran out of time
+    public static final int UNKNOWN = -2;
+
+    // table entry bounds
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private final ExecutorService pool;
+    private final long timeMillis;
+
+    // kept across solves: a position's value never changes
+    private final long[] keys;
+    private final long[] bestKeys;
+    private final byte[] entries;
+    private final int tableMask;
+
+    private long nodes;
+    private long deadline;
+    // the solve's future, done once the caller gave up
+    private CompletableFuture<?> caller;
+
+    // tableBits sets 2^bits table slots
+    public EndgameSolver(ExecutorService pool, long timeMillis, int tableBits) {
+        this.pool = pool;
+        this.timeMillis = Math.max(1, timeMillis);
+        int size = 1 << tableBits;
+        this.keys = new long[size];
+        this.bestKeys = new long[size];
+        this.entries = new byte[size];
+        this.tableMask = size - 1;
+    }
+
+    // true when the boneyard is out, so the opponent hand is known
+    public static boolean applies(InfoSet info) {
+        return info.opponentHandSize == TileSet.count(info.unseen);
+    }
+
+    // solves off the calling thread; the result value is the proven outcome
+    public CompletableFuture<SearchResult> solve(InfoSet info) {
+        return solve(info, timeMillis);
+    }
+
+    // solves off the calling thread; cancel the future to stop early
+    public CompletableFuture<SearchResult> solve(InfoSet info, long budgetMillis) {
+        CompletableFuture<SearchResult> outcome = new CompletableFuture<>();
+        pool.execute(() -> {
+            try {
+                outcome.complete(solveNow(info, budgetMillis, outcome));
+            } catch (Throwable error) {
+                outcome.completeExceptionally(error);
+            }
+        });
+        return outcome;
+    }
+
+    // solves on this thread with the configured budget
+    public SearchResult solveNow(InfoSet info) {
+        return solveNow(info, timeMillis, null);
+    }
+
+    // solves on this thread; one solve at a time shares the table
+    private synchronized SearchResult solveNow(InfoSet info, long budgetMillis, CompletableFuture<?> outcome) {
+        long started = System.nanoTime();
+        nodes = 0;
+        deadline = started + Math.max(1, budgetMillis) * 1_000_000L;
+        caller = outcome;
+
+        GameState state = info.newState();
+        info.deal(state, info.unseen);
+        List<BoardEngine.Move> moves = ordered(state.legalMoves(), 0L);
+        int horizon = TileSet.count(state.aiMask() | state.playerMask());
+        if (moves.isEmpty()) return new SearchResult(null, 0, 0, horizon, UNKNOWN);
+
+        BoardEngine.Move best = moves.get(0);
+        int bestValue = UNKNOWN;
+        try {
+            int alpha = UNKNOWN;
+            for (BoardEngine.Move move : moves) {
+                state.play(move);
+                int value = -negamax(state, -WIN, -alpha);
+                state.undo();
+                if (value > bestValue) { bestValue = value; best = move; }
+                if (value > alpha) alpha = value;
+                if (alpha >= WIN) break;
+            }
+        } catch (Abort timedOut) {
+            // keeps the best move proven so far, first in order otherwise
+            bestValue = UNKNOWN;
+        }
+        return new SearchResult(best, nodes, System.nanoTime() - started, horizon, bestValue);
+    }
+
+    // value for the side to move: 1 win, 0 block, -1 loss
+    private int negamax(GameState state, int alpha, int beta) {
+        nodes++;
+        if (state.isOver()) return outcomeFor(state.outcome(), state.toMove());
+        if ((nodes & 4095) == 0 && (System.nanoTime() >= deadline || (caller != null && caller.isDone()))) throw ABORT;
+
+        long key = state.hash();
+        int slot = (int) key & tableMask;
+        long hintKey = 0L;
+        if (keys[slot] == key && entries[slot] != 0) {
+            int entry = entries[slot];
+            int value = (entry >> 2) - 2;
+            int bound = entry & 3;
+            if (bound == EXACT) return value;
+            if (bound == LOWER && value >= beta) return value;
+            if (bound == UPPER && value <= alpha) return value;
+            hintKey = bestKeys[slot];
+        }
+
+        if (!state.canPlay()) {
+            state.pass();
+            int passed = -negamax(state, -beta, -alpha);
+            state.undo();
+            return passed;
+        }
+
+        int alphaIn = alpha;
+        int best = UNKNOWN;
+        long bestKey = 0L;
+        for (BoardEngine.Move move : ordered(state.legalMoves(), hintKey)) {
+            state.play(move);
+            int value = -negamax(state, -beta, -alpha);
+            state.undo();
+            if (value > best) { best = value; bestKey = move.key(); }
+            if (value > alpha) alpha = value;
+            if (alpha >= beta) break;
+        }
+
+        int bound = best <= alphaIn ? UPPER : best >= beta ? LOWER : EXACT;
+        keys[slot] = key;
+        bestKeys[slot] = bestKey;
+        entries[slot] = (byte) ((best + 2) << 2 | bound);
+        return best;
+    }
+
+    // table move first, then doubles, then heavier tiles to shed pips early
+    private static List<BoardEngine.Move> ordered(List<BoardEngine.Move> moves, long hintKey) {
+        List<BoardEngine.Move> sorted = new ArrayList<>(moves);
+        sorted.sort((a, b) -> Integer.compare(rank(b, hintKey), rank(a, hintKey)));
+        return sorted;
+    }
+
+    // higher ranks are tried first
+    private static int rank(BoardEngine.Move move, long hintKey) {
+        if (hintKey != 0L && move.key() == hintKey) return Integer.MAX_VALUE;
+        int id = move.tile.getId();
+        return (TileSet.isDouble(id) ? 100 : 0) + TileSet.pipSum(id);
+    }
+
+    // scores a finished game for one side
+    private static int outcomeFor(GameState.Outcome outcome, Side side) {
+        switch (outcome) {
+            case AI_WON:     return side == Side.AI ? WIN : LOSS;
+            case PLAYER_WON: return side == Side.PLAYER ? WIN : LOSS;
+            default:         return BLOCK;
+        }
+    }
+
+    // thrown to unwind a solve that ran past its budget
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        Abort() { super(null, null, false, false); }
+    }
+    private static final Abort ABORT = new Abort();
+}
@@ -0,0 +1,270 @@
+package ai;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.TileSet;
+import util.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    depth-limited expectimax from the searching side's view, deepened until the time budget runs out
+    the opponent hand is sampled; boneyard draws are chance nodes averaged over every tile
+    the first plies fork one task per branch on a work-stealing pool, deeper plies run in place
+*/
+public final class Expectimax {
+
+    public static final class Config {
+        public final long timeMillis;
+        public final int maxDepth;
+        public final int samples;
+        public final int splitDepth;
+
+        public Config(long timeMillis, int maxDepth, int samples, int splitDepth) {
+            this.timeMillis = Math.max(1, timeMillis);
+            this.maxDepth = Math.max(1, maxDepth);
+            this.samples = Math.max(1, samples);
+            this.splitDepth = Math.max(0, splitDepth);
+        }
+
+        // reads -Ddominoes.ai.millis and -Ddominoes.ai.depth over the defaults
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Long.getLong("dominoes.ai.millis", 1500L),
+                    Integer.getInteger("dominoes.ai.depth", 12),
+                    8,
+                    2);
+        }
+    }
+
+    // value of a won or lost game; heuristics stay strictly inside
+    private static final double WIN = 1.0;
+    private static final double HEURISTIC_CAP = 0.9;
+
+    private final ForkJoinPool pool;
+    private final Config config;
+
+    public Expectimax(ForkJoinPool pool, Config config) {
+        this.pool = pool;
+        this.config = config;
+    }
+
+    // deepens off the calling thread for the configured time
+    public CompletableFuture<SearchResult> search(InfoSet info, long seed) {
+        return search(info, seed, config.timeMillis);
+    }
+
+    // deepens off the calling thread; cancel the future to stop early
+    public CompletableFuture<SearchResult> search(InfoSet info, long seed, long timeMillis) {
+        CompletableFuture<SearchResult> outcome = new CompletableFuture<>();
+        long started = System.nanoTime();
+        List<BoardEngine.Move> rootMoves = info.board.legalMoves(info.myHand);
+        if (rootMoves.size() <= 1) {
+            outcome.complete(new SearchResult(rootMoves.isEmpty() ? null : rootMoves.get(0), 0, 0, 0));
+            return outcome;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] opponentHands = new long[config.samples];
+        for (int i = 0; i < opponentHands.length; i++) opponentHands[i] = info.sampleOpponentHand(random);
+
+        long deadline = started + Math.max(1, timeMillis) * 1_000_000L;
+        pool.execute(() -> {
+            try {
+                outcome.complete(deepen(info, rootMoves, opponentHands, started, deadline, outcome));
+            } catch (Throwable error) {
+                outcome.completeExceptionally(error);
+            }
+        });
+        return outcome;
+    }
+
+    // runs depth 1, 2, ... and keeps the last depth that finished in time
+    private SearchResult deepen(InfoSet info, List<BoardEngine.Move> rootMoves, long[] opponentHands,
+                                long started, long deadline, CompletableFuture<?> outcome) {
+        Search search = new Search(info.me, deadline, outcome);
+        BoardEngine.Move best = rootMoves.get(0);
+        int reached = 0;
+
+        for (int depth = 1; depth <= config.maxDepth; depth++) {
+            List<Branch> branches = new ArrayList<>(rootMoves.size() * opponentHands.length);
+            for (BoardEngine.Move move : rootMoves) {
+                for (long opponentHand : opponentHands) {
+                    GameState state = info.newState();
+                    info.deal(state, opponentHand);
+                    state.play(move);
+                    branches.add(new Branch(state, depth - 1, 1, search));
+                }
+            }
+            try {
+                Branch.invokeAll(branches);
+            } catch (Abort stopped) {
+                break;
+            }
+
+            double bestValue = Double.NEGATIVE_INFINITY;
+            boolean allSettled = true;
+            for (int m = 0; m < rootMoves.size(); m++) {
+                double total = 0;
+                for (int s = 0; s < opponentHands.length; s++) {
+                    double value = branches.get(m * opponentHands.length + s).join();
+                    total += value;
+                    if (Math.abs(value) < WIN) allSettled = false;
+                }
+                double mean = total / opponentHands.length;
+                if (mean > bestValue) { bestValue = mean; best = rootMoves.get(m); }
+            }
+            reached = depth;
+            // every line already ends the game, deeper adds nothing
+            if (allSettled) break;
+        }
+        return new SearchResult(best, search.nodes.sum(), System.nanoTime() - started, reached);
+    }
+
+    // shared side, stop flag and node count for one search
+    private static final class Search {
+        final Side me;
+        final long deadline;
+        final CompletableFuture<?> outcome;
+        final LongAdder nodes = new LongAdder();
+        volatile boolean stop;
+
+        Search(Side me, long deadline, CompletableFuture<?> outcome) {
+            this.me = me;
+            this.deadline = deadline;
+            this.outcome = outcome;
+        }
+
+        // true once time is up or the caller gave up
+        boolean stopped() {
+            if (!stop && (System.nanoTime() >= deadline || outcome.isDone())) stop = true;
+            return stop;
+        }
+    }
+
+    // thrown to unwind a search that ran out of time
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        Abort() { super(null, null, false, false); }
+    }
+    private static final Abort ABORT = new Abort();
+
+    // values one position; forks per branch above the split depth
+    private final class Branch extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        final transient GameState state;
+        final int depth;
+        final int ply;
+        final transient Search search;
+
+        Branch(GameState state, int depth, int ply, Search search) {
+            this.state = state; this.depth = depth; this.ply = ply; this.search = search;
+        }
+
+        @Override protected Double compute() {
+            if (ply >= config.splitDepth || depth == 0 || state.isOver()) return value(state, depth, search);
+            search.nodes.increment();
+            if (search.stopped()) throw ABORT;
+
+            List<Branch> children = new ArrayList<>();
+            boolean chance = state.mustDraw();
+            if (chance) {
+                for (long rest = state.boneyardMask(); rest != 0; rest &= rest - 1) {
+                    GameState child = state.copy();
+                    child.draw(Long.numberOfTrailingZeros(rest));
+                    children.add(new Branch(child, depth - 1, ply + 1, search));
+                }
+            } else if (!state.canPlay()) {
+                GameState child = state.copy();
+                child.pass();
+                children.add(new Branch(child, depth - 1, ply + 1, search));
+            } else {
+                for (BoardEngine.Move move : state.legalMoves()) {
+                    GameState child = state.copy();
+                    child.play(move);
+                    children.add(new Branch(child, depth - 1, ply + 1, search));
+                }
+            }
+            invokeAll(children);
+            return combine(state, chance, children, search.me);
+        }
+    }
+
+    // mean for draws, max for the searching side, min for the opponent
+    private static double combine(GameState state, boolean chance, List<Branch> children, Side me) {
+        if (chance) {
+            double total = 0;
+            for (Branch child : children) total += child.join();
+            return total / children.size();
+        }
+        boolean maximize = state.toMove() == me;
+        double best = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (Branch child : children) {
+            double value = child.join();
+            best = maximize ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    // sequential expectimax with play and undo on one state
+    private static double value(GameState state, int depth, Search search) {
+        search.nodes.increment();
+        if (state.isOver()) return terminal(state.outcome(), search.me);
+        if (depth == 0) return heuristic(state, search.me);
+        if (search.stopped()) throw ABORT;
+
+        if (state.mustDraw()) {
+            double total = 0;
+            int count = 0;
+            for (long rest = state.boneyardMask(); rest != 0; rest &= rest - 1) {
+                state.draw(Long.numberOfTrailingZeros(rest));
+                total += value(state, depth - 1, search);
+                state.undo();
+                count++;
+            }
+            return total / count;
+        }
+        if (!state.canPlay()) {
+            state.pass();
+            double passed = value(state, depth - 1, search);
+            state.undo();
+            return passed;
+        }
+
+        boolean maximize = state.toMove() == search.me;
+        double best = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (BoardEngine.Move move : state.legalMoves()) {
+            state.play(move);
+            double child = value(state, depth - 1, search);
+            state.undo();
+            best = maximize ? Math.max(best, child) : Math.min(best, child);
+        }
+        return best;
+    }
+
+    // +1 when me won, -1 when me lost, 0 for a block
+    static double terminal(GameState.Outcome outcome, Side me) {
+        switch (outcome) {
+            case AI_WON:     return me == Side.AI ? WIN : -WIN;
+            case PLAYER_WON: return me == Side.PLAYER ? WIN : -WIN;
+            default:         return 0.0;
+        }
+    }
+
+    // fewer tiles and more playable tiles than the opponent is better for me
+    static double heuristic(GameState state, Side me) {
+        long playable = state.board().playableTileMask();
+        long mine = state.handOf(me);
+        long theirs = state.handOf(GameState.other(me));
+        int tileEdge = TileSet.count(theirs) - TileSet.count(mine);
+        int playEdge = TileSet.count(mine & playable) - TileSet.count(theirs & playable);
+        double score = 0.08 * tileEdge + 0.03 * playEdge;
+        return Math.max(-HEURISTIC_CAP, Math.min(HEURISTIC_CAP, score));
+    }
+}
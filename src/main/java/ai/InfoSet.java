@@ -0,0 +1,67 @@
+package ai;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.TileSet;
+import util.GameState;
+
+import java.util.SplittableRandom;
+
+/*
+    what the searching side can see: the board, its own hand and counts
+    the opponent hand and boneyard are only known as one unseen pool
+    an optional belief narrows opponent hands to ones that fit its draws and passes
+*/
+public final class InfoSet {
+
+    public final BoardEngine board;
+    public final Side me;
+    public final Side toMove;
+    public final long myHand;
+    public final long unseen;
+    public final int opponentHandSize;
+    public final OpponentBelief belief;
+
+    // board must be a detached snapshot; it is only read from here on
+    public InfoSet(BoardEngine board, Side me, Side toMove, long myHand, int opponentHandSize) {
+        this(board, me, toMove, myHand, opponentHandSize, null);
+    }
+
+    // belief must be a copy no other thread still updates
+    public InfoSet(BoardEngine board, Side me, Side toMove, long myHand, int opponentHandSize,
+                   OpponentBelief belief) {
+        this.board = board;
+        this.belief = belief;
+        this.me = me;
+        this.toMove = toMove;
+        this.myHand = myHand;
+        this.unseen = TileSet.ALL & ~myHand & ~board.placedMask();
+        this.opponentHandSize = Math.min(opponentHandSize, TileSet.count(unseen));
+    }
+
+    // picks a random opponent hand of the right size from the unseen pool
+    public long sampleOpponentHand(SplittableRandom random) {
+        if (belief != null) return belief.sample(unseen, opponentHandSize, random);
+        long pool = unseen;
+        int left = TileSet.count(pool);
+        long hand = TileSet.EMPTY;
+        for (int i = 0; i < opponentHandSize; i++) {
+            int pick = TileSet.nth(pool, random.nextInt(left--));
+            hand = TileSet.add(hand, pick);
+            pool = TileSet.remove(pool, pick);
+        }
+        return hand;
+    }
+
+    // builds a headless game over a private copy of the board
+    public GameState newState() {
+        return new GameState(board.snapshot(), TileSet.EMPTY, TileSet.EMPTY, TileSet.EMPTY, toMove);
+    }
+
+    // fills hidden tiles in a state from one opponent guess
+    public void deal(GameState state, long opponentHand) {
+        long boneyard = unseen & ~opponentHand;
+        if (me == Side.AI) state.redeal(opponentHand, myHand, boneyard);
+        else state.redeal(myHand, opponentHand, boneyard);
+    }
+}
@@ -0,0 +1,246 @@
+package ai;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import util.GameState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/*
+    single-observer information-set monte carlo tree search
+    every iteration deals the unseen tiles at random, then walks one shared tree
+    each worker grows its own tree; root visit counts are summed at the end
+*/
+public final class Ismcts {
+
+    public static final class Config {
+        public final int threads;
+        public final long timeMillis;
+        public final long maxIterations;
+        public final double exploration;
+
+        public Config(int threads, long timeMillis, long maxIterations, double exploration) {
+            this.threads = Math.max(1, threads);
+            this.timeMillis = Math.max(1, timeMillis);
+            this.maxIterations = Math.max(1, maxIterations);
+            this.exploration = exploration;
+        }
+
+        // reads -Ddominoes.ai.threads, .millis and .iterations over the defaults
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Integer.getInteger("dominoes.ai.threads", SearchPool.THREADS),
+                    Long.getLong("dominoes.ai.millis", 1500L),
+                    Long.getLong("dominoes.ai.iterations", Long.MAX_VALUE),
+                    0.7);
+        }
+    }
+
+    // key for the forced pass, which no real move can produce
+    private static final long PASS_KEY = -1L;
+    // how many iterations run between clock checks
+    private static final int CLOCK_STRIDE = 16;
+
+    private final ExecutorService pool;
+    private final Config config;
+
+    public Ismcts(ExecutorService pool, Config config) {
+        this.pool = pool;
+        this.config = config;
+    }
+
+    // searches off the calling thread for the configured time
+    public CompletableFuture<SearchResult> search(InfoSet info, long seed) {
+        return search(info, seed, config.timeMillis);
+    }
+
+    // searches off the calling thread; cancel the future to stop early
+    public CompletableFuture<SearchResult> search(InfoSet info, long seed, long timeMillis) {
+        CompletableFuture<SearchResult> outcome = new CompletableFuture<>();
+        long started = System.nanoTime();
+        List<BoardEngine.Move> rootMoves = info.board.legalMoves(info.myHand);
+        if (rootMoves.size() <= 1) {
+            outcome.complete(new SearchResult(rootMoves.isEmpty() ? null : rootMoves.get(0), 0, 0, 0));
+            return outcome;
+        }
+
+        long deadline = started + Math.max(1, timeMillis) * 1_000_000L;
+        long perWorker = Math.max(1, config.maxIterations / config.threads);
+        SplittableRandom seeds = new SplittableRandom(seed);
+
+        List<CompletableFuture<Worker>> running = new ArrayList<>(config.threads);
+        for (int i = 0; i < config.threads; i++) {
+            Worker worker = new Worker(info, seeds.split(), config.exploration);
+            running.add(CompletableFuture.supplyAsync(() -> worker.run(deadline, perWorker, outcome), pool));
+        }
+
+        CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).whenComplete((done, error) -> {
+            if (error != null) {
+                outcome.completeExceptionally(error);
+                return;
+            }
+            Map<Long, Long> visits = new HashMap<>();
+            long iterations = 0;
+            for (CompletableFuture<Worker> finished : running) {
+                Worker worker = finished.join();
+                iterations += worker.iterations;
+                for (Node child : worker.root.children) visits.merge(child.moveKey, (long) child.visits, Long::sum);
+            }
+            BoardEngine.Move best = rootMoves.get(0);
+            long bestVisits = -1;
+            for (BoardEngine.Move move : rootMoves) {
+                long count = visits.getOrDefault(move.key(), 0L);
+                if (count > bestVisits) { bestVisits = count; best = move; }
+            }
+            outcome.complete(new SearchResult(best, iterations, System.nanoTime() - started, 0));
+        });
+        return outcome;
+    }
+
+    // one tree edge; wins are from the view of the side that moved into it
+    private static final class Node {
+        final Node parent;
+        final long moveKey;
+        final Side mover;
+        final List<Node> children = new ArrayList<>();
+        int visits;
+        int available;
+        double wins;
+
+        Node(Node parent, long moveKey, Side mover) {
+            this.parent = parent; this.moveKey = moveKey; this.mover = mover;
+        }
+
+        // finds the child for a move key, or null
+        Node child(long key) {
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i).moveKey == key) return children.get(i);
+            }
+            return null;
+        }
+
+        // adds a child for a move made by mover
+        Node add(long key, Side mover) {
+            Node child = new Node(this, key, mover);
+            children.add(child);
+            return child;
+        }
+    }
+
+    // one thread's tree, state and random stream
+    private static final class Worker {
+        final InfoSet info;
+        final SplittableRandom random;
+        final double exploration;
+        final GameState state;
+        final Node root;
+        final List<BoardEngine.Move> untried = new ArrayList<>();
+        long iterations;
+
+        Worker(InfoSet info, SplittableRandom random, double exploration) {
+            this.info = info;
+            this.random = random;
+            this.exploration = exploration;
+            this.state = info.newState();
+            this.root = new Node(null, PASS_KEY, GameState.other(info.toMove));
+        }
+
+        // iterates until the deadline, the budget, or the search is done
+        Worker run(long deadline, long budget, CompletableFuture<?> outcome) {
+            while (iterations < budget) {
+                if (iterations % CLOCK_STRIDE == 0
+                        && (System.nanoTime() >= deadline || outcome.isDone() || Thread.currentThread().isInterrupted())) break;
+                iterate();
+                iterations++;
+            }
+            return this;
+        }
+
+        // one determinize, select, expand, roll out and back up pass
+        void iterate() {
+            info.deal(state, info.sampleOpponentHand(random));
+            int base = state.depth();
+            Node node = root;
+
+            while (!state.isOver()) {
+                if (state.mustDraw()) {
+                    state.drawRandom(random);
+                    continue;
+                }
+                Side mover = state.toMove();
+                if (!state.canPlay()) {
+                    state.pass();
+                    Node next = node.child(PASS_KEY);
+                    node = next != null ? next : node.add(PASS_KEY, mover);
+                    continue;
+                }
+
+                List<BoardEngine.Move> moves = state.legalMoves();
+                untried.clear();
+                Node best = null;
+                BoardEngine.Move bestMove = null;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (BoardEngine.Move move : moves) {
+                    Node child = node.child(move.key());
+                    if (child == null) {
+                        untried.add(move);
+                        continue;
+                    }
+                    child.available++;
+                    double score = child.wins / child.visits
+                            + exploration * Math.sqrt(Math.log(child.available) / child.visits);
+                    if (score > bestScore) { bestScore = score; best = child; bestMove = move; }
+                }
+
+                if (!untried.isEmpty()) {
+                    BoardEngine.Move move = untried.get(random.nextInt(untried.size()));
+                    Node child = node.add(move.key(), mover);
+                    child.available++;
+                    state.play(move);
+                    node = child;
+                    break;
+                }
+                state.play(bestMove);
+                node = best;
+            }
+
+            rollout();
+
+            GameState.Outcome result = state.outcome();
+            for (Node step = node; step != null; step = step.parent) {
+                step.visits++;
+                step.wins += reward(result, step.mover);
+            }
+            state.undoTo(base);
+        }
+
+        // plays random legal steps to the end
+        void rollout() {
+            while (!state.isOver()) {
+                if (state.mustDraw()) {
+                    state.drawRandom(random);
+                } else if (state.canPlay()) {
+                    List<BoardEngine.Move> moves = state.legalMoves();
+                    state.play(moves.get(random.nextInt(moves.size())));
+                } else {
+                    state.pass();
+                }
+            }
+        }
+    }
+
+    // 1 for a win, 0 for a loss, half for a blocked game
+    static double reward(GameState.Outcome result, Side side) {
+        switch (result) {
+            case PLAYER_WON: return side == Side.PLAYER ? 1.0 : 0.0;
+            case AI_WON:     return side == Side.AI ? 1.0 : 0.0;
+            default:         return 0.5;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ai;
+
+import models.TileSet;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+    what the opponent's hidden hand can still hold, learned from draws and passes
+    a draw or pass proves no held tile fit the open ends at that moment
+    held tiles are kept in groups by when they were drawn; older groups saw more
+    exclusions, so each group's allowed tiles contain those of every older group
+*/
+public final class OpponentBelief {
+
+    // oldest group first; allowed masks only grow toward the newest
+    private long[] allowed = new long[4];
+    private int[] count = new int[4];
+    private int groups;
+
+    // starts with a dealt hand nothing is known about
+    public OpponentBelief(int handSize) {
+        if (handSize > 0) append(TileSet.ALL, handSize);
+    }
+
+    private OpponentBelief(OpponentBelief other) {
+        this.allowed = other.allowed.clone();
+        this.count = other.count.clone();
+        this.groups = other.groups;
+    }
+
+    // detached copy for search threads
+    public OpponentBelief copy() {
+        return new OpponentBelief(this);
+    }
+
+    // returns the hand size the belief accounts for
+    public int handSize() {
+        int total = 0;
+        for (int g = 0; g < groups; g++) total += count[g];
+        return total;
+    }
+
+    // returns tiles no held tile can be
+    public long excluded() {
+        long possible = 0L;
+        for (int g = 0; g < groups; g++) possible |= allowed[g];
+        return TileSet.ALL & ~possible;
+    }
+
+    // opponent passed while these tiles were playable
+    public void observePass(long playableTiles) {
+        exclude(playableTiles);
+    }
+
+    // opponent drew while these tiles were playable
+    public void observeDraw(long playableTiles) {
+        exclude(playableTiles);
+        if (groups > 0 && allowed[groups - 1] == TileSet.ALL) count[groups - 1]++;
+        else append(TileSet.ALL, 1);
+    }
+
+    // opponent played a tile; takes it from the strictest group that allows it
+    public void observePlay(int tileId) {
+        int from = -1;
+        for (int g = 0; g < groups && from < 0; g++) {
+            if (count[g] > 0 && TileSet.contains(allowed[g], tileId)) from = g;
+        }
+        // not allowed anywhere means a missed event; drop the loosest slot
+        if (from < 0) from = groups - 1;
+        if (from < 0) return;
+        if (--count[from] == 0) removeGroup(from);
+    }
+
+    // uniform hand of handSize over worlds that fit every observation
+    public long sample(long unseen, int handSize, SplittableRandom random) {
+        int known = handSize();
+        if (known > handSize) return sampleFree(unseen, handSize, random);
+
+        // strictest first: earlier picks lie inside every later group,
+        // so later choices never depend on which tiles were taken
+        long hand = 0L;
+        for (int g = 0; g < groups; g++) {
+            long pool = allowed[g] & unseen & ~hand;
+            if (TileSet.count(pool) < count[g]) return sampleFree(unseen, handSize, random);
+            hand |= pick(pool, count[g], random);
+        }
+        return hand | pick(unseen & ~hand, handSize - known, random);
+    }
+
+    // uniform hand ignoring the observations
+    private static long sampleFree(long unseen, int handSize, SplittableRandom random) {
+        return pick(unseen, Math.min(handSize, TileSet.count(unseen)), random);
+    }
+
+    // picks n distinct tiles from a pool
+    private static long pick(long pool, int n, SplittableRandom random) {
+        long picked = 0L;
+        for (int i = 0; i < n; i++) {
+            int tile = TileSet.nth(pool, random.nextInt(TileSet.count(pool)));
+            picked = TileSet.add(picked, tile);
+            pool = TileSet.remove(pool, tile);
+        }
+        return picked;
+    }
+
+    // rules tiles out of every group held right now
+    private void exclude(long tiles) {
+        for (int g = 0; g < groups; g++) allowed[g] &= ~tiles;
+        // neighbours that became equal behave as one group
+        for (int g = groups - 1; g > 0; g--) {
+            if (allowed[g] == allowed[g - 1]) {
+                count[g - 1] += count[g];
+                removeGroup(g);
+            }
+        }
+    }
+
+    // adds the newest group
+    private void append(long mask, int n) {
+        if (groups == allowed.length) {
+            allowed = Arrays.copyOf(allowed, groups * 2);
+            count = Arrays.copyOf(count, groups * 2);
+        }
+        allowed[groups] = mask;
+        count[groups] = n;
+        groups++;
+    }
+
+    // drops one group, keeping order
+    private void removeGroup(int g) {
+        System.arraycopy(allowed, g + 1, allowed, g, groups - g - 1);
+        System.arraycopy(count, g + 1, count, g, groups - g - 1);
+        groups--;
+    }
+
+    @Override public String toString() {
+        StringBuilder out = new StringBuilder("OpponentBelief{");
+        for (int g = 0; g < groups; g++) {
+            if (g > 0) out.append(", ");
+            out.append(count[g]).append(" of ").append(TileSet.count(allowed[g]));
+        }
+        return out.append('}').toString();
+    }
+}
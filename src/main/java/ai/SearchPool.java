@@ -0,0 +1,54 @@
+package ai;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    shared daemon workers for ai search, one per core
+    daemon so a search in flight never keeps the app open
+*/
+public final class SearchPool {
+
+    public static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override public Thread newThread(Runnable task) {
+            Thread worker = new Thread(task, "ai-search-" + count.incrementAndGet());
+            worker.setDaemon(true);
+            worker.setPriority(Thread.NORM_PRIORITY - 1);
+            return worker;
+        }
+    });
+
+    // work-stealing pool for tree searches that fork per branch
+    private static final ForkJoinPool FORK_JOIN = new ForkJoinPool(THREADS, pool -> {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("ai-forkjoin-" + worker.getPoolIndex());
+        worker.setDaemon(true);
+        worker.setPriority(Thread.NORM_PRIORITY - 1);
+        return worker;
+    }, null, false);
+
+    // one virtual thread per ai turn; it only waits on the pools above
+    private static final ExecutorService TURNS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-turn-", 0).factory());
+
+    private SearchPool() {}
+
+    public static ExecutorService shared() {
+        return POOL;
+    }
+
+    public static ForkJoinPool forkJoin() {
+        return FORK_JOIN;
+    }
+
+    public static ExecutorService turns() {
+        return TURNS;
+    }
+}
@@ -0,0 +1,39 @@
+package ai;
+
+import models.BoardEngine;
+
+/*
+    what a search hands back: the move plus effort spent
+    nodes counts iterations for monte carlo and positions for tree searches
+    value is only set by exact solvers: 1 win, 0 block, -1 loss for the mover
+*/
+public final class SearchResult {
+
+    public final BoardEngine.Move move;
+    public final long nodes;
+    public final long elapsedNanos;
+    public final int depth;
+    public final int value;
+
+    public SearchResult(BoardEngine.Move move, long nodes, long elapsedNanos, int depth) {
+        this(move, nodes, elapsedNanos, depth, 0);
+    }
+
+    public SearchResult(BoardEngine.Move move, long nodes, long elapsedNanos, int depth, int value) {
+        this.move = move;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.depth = depth;
+        this.value = value;
+    }
+
+    // returns positions or iterations per second
+    public double nodesPerSecond() {
+        return elapsedNanos <= 0 ? 0.0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    @Override public String toString() {
+        return "SearchResult{move=" + move + ", nodes=" + nodes + ", depth=" + depth + ", value=" + value
+                + ", ms=" + elapsedNanos / 1_000_000 + ", nps=" + (long) nodesPerSecond() + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package ai;
+
+import models.BoardEngine;
+import models.TileSet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/*
+    registry of strategies by name, so seats pick them from a system property
+    built in: first, heaviest, ismcts and expectimax
+    forSeat also hands the exact endgame solver any position it can settle
+*/
+public final class Strategies {
+
+    private static final Map<String, Supplier<Strategy>> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        register("first", () -> quick("first", moves -> moves.get(0)));
+        register("heaviest", () -> quick("heaviest", Strategies::heaviest));
+        register("ismcts", () -> {
+            Ismcts search = new Ismcts(SearchPool.shared(), Ismcts.Config.fromSystemProperties());
+            return named("ismcts", search::search);
+        });
+        register("expectimax", () -> {
+            Expectimax search = new Expectimax(SearchPool.forkJoin(), Expectimax.Config.fromSystemProperties());
+            return named("expectimax", search::search);
+        });
+    }
+
+    private Strategies() {}
+
+    // adds or replaces a strategy under a lower-case name
+    public static synchronized void register(String name, Supplier<Strategy> factory) {
+        REGISTRY.put(name.toLowerCase(), factory);
+    }
+
+    // returns every registered name in registration order
+    public static synchronized List<String> names() {
+        return new ArrayList<>(REGISTRY.keySet());
+    }
+
+    // builds a fresh strategy; unknown names throw
+    public static synchronized Strategy create(String name) {
+        Supplier<Strategy> factory = REGISTRY.get(name.toLowerCase());
+        if (factory == null) {
+            throw new IllegalArgumentException("unknown strategy '" + name + "', expected one of " + REGISTRY.keySet());
+        }
+        return factory.get();
+    }
+
+    // reads a seat's strategy from a property, e.g. -Ddominoes.ai=ismcts; the gui seat defaults to first
+    public static Strategy forSeat(String property, String fallback) {
+        return withEndgame(create(System.getProperty(property, fallback)));
+    }
+
+    // lets the exact solver take over once the boneyard is out
+    public static Strategy withEndgame(Strategy inner) {
+        EndgameSolver solver = new EndgameSolver(SearchPool.shared(),
+                Long.getLong("dominoes.ai.solveMillis", 5000L), 20);
+        return named(inner.name(), (view, seed, budgetMillis) -> EndgameSolver.applies(view)
+                ? solver.solve(view, budgetMillis)
+                : inner.choose(view, seed, budgetMillis));
+    }
+
+    // wraps a choose function under a name
+    private static Strategy named(String name, Chooser chooser) {
+        return new Strategy() {
+            @Override public String name() { return name; }
+            @Override public CompletableFuture<SearchResult> choose(InfoSet view, long seed, long budgetMillis) {
+                return chooser.choose(view, seed, budgetMillis);
+            }
+        };
+    }
+
+    // strategy that picks from the legal list on the calling thread
+    private static Strategy quick(String name, Picker picker) {
+        return named(name, (view, seed, budgetMillis) -> {
+            long started = System.nanoTime();
+            List<BoardEngine.Move> moves = view.board.legalMoves(view.myHand);
+            BoardEngine.Move move = moves.isEmpty() ? null : picker.pick(moves);
+            return CompletableFuture.completedFuture(
+                    new SearchResult(move, moves.size(), System.nanoTime() - started, 1));
+        });
+    }
+
+    // sheds the most pips: heaviest tile, doubles first on a tie
+    private static BoardEngine.Move heaviest(List<BoardEngine.Move> moves) {
+        BoardEngine.Move best = moves.get(0);
+        int bestWeight = -1;
+        for (BoardEngine.Move move : moves) {
+            int id = move.tile.getId();
+            int weight = TileSet.pipSum(id) * 2 + (TileSet.isDouble(id) ? 1 : 0);
+            if (weight > bestWeight) { bestWeight = weight; best = move; }
+        }
+        return best;
+    }
+
+    private interface Chooser {
+        CompletableFuture<SearchResult> choose(InfoSet view, long seed, long budgetMillis);
+    }
+
+    private interface Picker {
+        BoardEngine.Move pick(List<BoardEngine.Move> moves);
+    }
+}
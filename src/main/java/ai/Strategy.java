@@ -0,0 +1,18 @@
+package ai;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+    how one seat picks its move from what it can see
+    the view is detached from the live game, so any thread may read it
+    quick strategies complete at once; searches complete on their own workers
+*/
+public interface Strategy {
+
+    // short name the registry knows it by
+    String name();
+
+    // picks a move for view.me within the budget; a null move means nothing is playable
+    // cancelling the future stops a search early and drops its answer
+    CompletableFuture<SearchResult> choose(InfoSet view, long seed, long budgetMillis);
+}
@@ -0,0 +1,29 @@
+package ai;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+    one ai turn's claim on the table, cancelled once the turn goes stale
+    work attached to it is cancelled too, and nothing it returns is applied
+*/
+public final class TurnToken {
+
+    private volatile boolean cancelled;
+    private volatile CompletableFuture<?> work;
+
+    public boolean isCancelled() { return cancelled; }
+
+    // marks the turn stale and stops its work
+    public void cancel() {
+        cancelled = true;
+        CompletableFuture<?> running = work;
+        if (running != null) running.cancel(true);
+    }
+
+    // ties work to this turn; work attached after cancel stops at once
+    public <T> CompletableFuture<T> attach(CompletableFuture<T> running) {
+        work = running;
+        if (cancelled) running.cancel(true);
+        return running;
+    }
+}
@@ -5,8 +5,11 @@ package app;
 import controllers.Music;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.scene.input.KeyCombination;
 import javafx.stage.Stage;
+import util.GameEvents;
+import util.GameMetrics;
 import views.MainMenu;
 
 public class Main extends Application {
@@ -18,6 +21,11 @@ public class Main extends Application {
     public void start(Stage stage) {
         stage.setTitle("Dominoes");
 
+        // live counters for jconsole, under dominoes:type=GameMetrics
+        GameMetrics.register();
+        // flight recording with the engine events, when -Ddominoes.jfr is set
+        GameEvents.recordFromProperty();
+
         // create main menu
         var menu = new MainMenu(stage);
         stage.setScene(menu.createScene());
@@ -33,14 +41,17 @@ public class Main extends Application {
         stage.setFullScreenExitHint("");
         stage.setFullScreenExitKeyCombination(KeyCombination.NO_MATCH);
 
+        timePulses(stage.getScene());
+
         // force fullscreen after scene changes
-        stage.sceneProperty().addListener((obs, oldScene, newScene) ->
+        stage.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            timePulses(newScene);
             Platform.runLater(() -> {
                 stage.toFront();
                 stage.requestFocus();
                 stage.setFullScreen(true);
-            })
-        );
+            });
+        });
 
         stage.show();
 
@@ -65,6 +76,14 @@ public class Main extends Application {
         Music.playSongOnLoop("/assets/music/Song1.mp3", 0.2);
     }
 
+    // times css and layout of each pulse, once per scene
+    private static void timePulses(Scene scene) {
+        if (scene == null || scene.getProperties().putIfAbsent(GameMetrics.OBJECT_NAME, Boolean.TRUE) != null) return;
+        long[] pulseStart = new long[1];
+        scene.addPreLayoutPulseListener(() -> pulseStart[0] = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> GameMetrics.get().fxPulse(System.nanoTime() - pulseStart[0]));
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,172 @@
+package app;
+
+import ai.SearchPool;
+import models.BoardEngine;
+import models.TileSet;
+import util.GameJournal;
+import util.GameReplay;
+import util.GameState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    headless journal replay: re-checks every game against the current rules,
+    or prints one game's position after a chosen step
+    one thread reads and decodes; batches of games verify across all cores
+*/
+public final class Replay {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "usage: Replay --journal FILE [--threads T]",
+            "       Replay --journal FILE --game N [--step K]");
+
+    private static final int BATCH = 4096;
+    // failures printed in full; the rest are only counted
+    private static final int SHOWN_FAILURES = 10;
+
+    private Replay() {}
+
+    public static void main(String[] args) throws Exception {
+        Path journal = null;
+        int threads = SearchPool.THREADS;
+        long game = -1;
+        int step = -1;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--journal": journal = Paths.get(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--game":    game = Long.parseLong(value); break;
+                    case "--step":    step = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (journal == null) throw new IllegalArgumentException("--journal is required");
+            if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        } catch (IllegalArgumentException bad) {
+            System.err.println(bad.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        int failures = game >= 0 ? show(journal, game, step) : verifyAll(journal, threads);
+        if (failures > 0) System.exit(1);
+    }
+
+    // verifies every game, returns how many failed
+    static int verifyAll(Path journal, int threads) throws IOException, InterruptedException, ExecutionException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread worker = new Thread(task, "replay-" + threadCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+
+        long games = 0, steps = 0;
+        int failures = 0;
+        long started = System.nanoTime();
+        try (GameJournal.Reader reader = GameJournal.read(journal)) {
+            List<Future<List<String>>> pending = new ArrayList<>();
+            boolean more = true;
+            while (more) {
+                List<GameReplay.Game> batch = new ArrayList<>(BATCH);
+                while (batch.size() < BATCH && (more = reader.nextGame())) {
+                    GameReplay.Game decoded = GameReplay.Game.read(reader);
+                    batch.add(decoded);
+                    steps += decoded.length();
+                }
+                games += batch.size();
+                if (!batch.isEmpty()) pending.add(pool.submit(() -> verify(batch)));
+
+                // keep reading ahead of the workers, but only so far
+                while (pending.size() > threads * 2 || (!more && !pending.isEmpty())) {
+                    for (String failure : pending.remove(0).get()) {
+                        if (failures++ < SHOWN_FAILURES) System.out.println("  " + failure);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("replayed %d games, %d steps in %.2f s (%.0f steps/s)%n",
+                games, steps, seconds, seconds <= 0 ? 0.0 : steps / seconds);
+        System.out.println(failures == 0 ? "all games legal" : failures + " games failed");
+        return failures;
+    }
+
+    // checks each game in a batch, returns the failures
+    private static List<String> verify(List<GameReplay.Game> batch) {
+        List<String> failures = new ArrayList<>();
+        for (GameReplay.Game game : batch) {
+            String failure = GameReplay.verify(game);
+            if (failure != null) failures.add(failure);
+        }
+        return failures;
+    }
+
+    // prints one game's position after a step, the end by default
+    static int show(Path journal, long index, int step) throws IOException {
+        GameReplay.Game found = null;
+        try (GameJournal.Reader reader = GameJournal.read(journal)) {
+            while (found == null && reader.nextGame()) {
+                GameReplay.Game decoded = GameReplay.Game.read(reader);
+                if (decoded.index == index) found = decoded;
+            }
+        }
+        if (found == null) {
+            System.err.println("no game " + index + " in " + journal);
+            return 1;
+        }
+
+        GameReplay replay = new GameReplay(found);
+        int target = step < 0 ? found.length() : Math.min(step, found.length());
+        try {
+            replay.seek(target);
+        } catch (IllegalStateException illegal) {
+            System.out.println(illegal.getMessage());
+            return 1;
+        }
+
+        GameState state = replay.state();
+        System.out.printf("game %d (seed %d), step %d of %d, %s moved first%n",
+                found.index, found.seed, target, found.length(), found.first);
+        System.out.println("to move:  " + state.toMove() + (state.isOver() ? " (" + state.outcome() + ")" : ""));
+        System.out.println("player:   " + tiles(state.playerMask()));
+        System.out.println("ai:       " + tiles(state.aiMask()));
+        System.out.println("boneyard: " + tiles(state.boneyardMask()));
+        StringBuilder board = new StringBuilder();
+        for (BoardEngine.Placed placed : state.board().placed()) {
+            if (board.length() > 0) board.append(" -> ");
+            board.append('[').append(placed.model.firstValue(placed.facing))
+                    .append('|').append(placed.model.secondValue(placed.facing)).append(']');
+        }
+        System.out.println("board:    " + (board.length() == 0 ? "—" : board));
+        return 0;
+    }
+
+    // lists a mask's tiles as [a|b]
+    private static String tiles(long mask) {
+        if (mask == 0) return "[]";
+        StringBuilder out = new StringBuilder();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            if (out.length() > 0) out.append(' ');
+            out.append('[').append(TileSet.highPip(id)).append('|').append(TileSet.lowPip(id)).append(']');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,222 @@
+package app;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.CDominoes;
+import models.GameRandom;
+import models.Hand;
+import models.Orientation;
+import models.TileSet;
+import util.GameState;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/*
+    engine self-check: plays seeded random games and compares each fast path
+    against the slow way of getting the same answer
+        anchors kept incrementally   vs  a full rebuildAnchors on a copy
+        legalMoves from pip buckets  vs  every tile, facing and open anchor
+        hashes patched by xor        vs  hashes built from scratch
+    then undoes every game back to the deal, checking hash and anchors on the way
+    each deal is played twice: on the bare grid, and behind a slot filter that
+    blocks bands of the table the way the gui's hand bars do
+    exits 1 on any mismatch, so gradle check runs it as a gate
+*/
+public final class SelfCheck {
+
+    private static final String USAGE = "usage: SelfCheck [--games N] [--seed S]";
+
+    // mismatches printed in full; the rest are only counted
+    private static final int SHOWN_FAILURES = 10;
+
+    private static final Orientation[] FACINGS = Orientation.values();
+
+    private long positions, undos, failures;
+
+    private SelfCheck() {}
+
+    public static void main(String[] args) {
+        long games = 2000;
+        long seed = 1;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games": games = Long.parseLong(value); break;
+                    case "--seed":  seed = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (games < 1) throw new IllegalArgumentException("games must be positive");
+        } catch (IllegalArgumentException bad) {
+            System.err.println(bad.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        SelfCheck check = new SelfCheck();
+        long started = System.nanoTime();
+        for (long index = 0; index < games; index++) {
+            check.game(seed, index, null);
+            check.game(seed, index, SelfCheck::clearOfBars);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("checked %d deals on both boards, %d positions, %d undos in %.2f s%n",
+                games, check.positions, check.undos, seconds);
+        if (check.failures > 0) {
+            System.out.println(check.failures + " mismatches");
+            System.exit(1);
+        }
+        System.out.println("engine checks passed");
+    }
+
+    // stands in for slotVisible: inside the grid, off two hand bars and a dead strip
+    private static boolean clearOfBars(int row, int col, boolean vertical, int halfX, int halfY) {
+        int x = col * 2 + halfX, y = row * 2 + halfY;
+        int w = vertical ? 2 : 4, h = vertical ? 4 : 2;
+        int width = BoardEngine.DEFAULT_COLS * 2, height = BoardEngine.DEFAULT_ROWS * 2;
+        if (x < 0 || y < 0 || x + w > width || y + h > height) return false;
+        if (y < 5 || y + h > height - 5) return false;
+        return x + w <= 56 || x >= 61;
+    }
+
+    // plays one game with random legal moves, then unwinds it
+    private void game(long seed, long index, BoardEngine.SlotFilter filter) {
+        GameRandom random = GameRandom.forGame(seed, index);
+        Hand hand = new Hand(random);
+        long boneyard = TileSet.EMPTY;
+        for (CDominoes tile : hand.leftoverDominoes()) boneyard = TileSet.add(boneyard, tile.getId());
+        Side first = random.coin().nextBoolean() ? Side.PLAYER : Side.AI;
+
+        BoardEngine board = new BoardEngine();
+        board.setSlotFilter(filter);
+        GameState state = new GameState(board, hand.getPlayerMask(), hand.getAiMask(), boneyard, first);
+        String game = "game " + index + (filter == null ? "" : " behind bars");
+        SplittableRandom draws = random.draws();
+        SplittableRandom picks = random.ai();
+
+        // what each depth looked like, to compare against after undo
+        List<Long> hashes = new ArrayList<>();
+        List<Set<BoardEngine.Anchor>> anchorSets = new ArrayList<>();
+        while (true) {
+            String where = game + " step " + state.depth();
+            position(state, filter, where);
+            hashes.add(state.hash());
+            anchorSets.add(new HashSet<>(state.board().anchors()));
+            if (state.isOver()) break;
+
+            if (state.mustDraw()) {
+                state.drawRandom(draws);
+            } else if (!state.canPlay()) {
+                state.pass();
+            } else {
+                List<BoardEngine.Move> moves = state.legalMoves();
+                state.play(moves.get(picks.nextInt(moves.size())));
+            }
+        }
+
+        while (state.depth() > 0) {
+            state.undo();
+            undos++;
+            int depth = state.depth();
+            String where = game + " undo to step " + depth;
+            if (state.hash() != hashes.get(depth)) {
+                fail(where, "hash " + Long.toHexString(state.hash()) + " after undo, "
+                        + Long.toHexString(hashes.get(depth)) + " before the step");
+            }
+            if (!anchorSets.get(depth).equals(new HashSet<>(state.board().anchors()))) {
+                fail(where, "anchors after undo differ from before the step");
+            }
+        }
+    }
+
+    // compares every fast answer at one position to the slow one
+    private void position(GameState state, BoardEngine.SlotFilter filter, String where) {
+        positions++;
+        BoardEngine board = state.board();
+
+        BoardEngine rebuilt = board.snapshot();
+        rebuilt.setSlotFilter(filter);
+        rebuilt.rebuildAnchors();
+        Set<BoardEngine.Anchor> kept = new HashSet<>(board.anchors());
+        Set<BoardEngine.Anchor> fresh = new HashSet<>(rebuilt.anchors());
+        if (!kept.equals(fresh)) {
+            fail(where, "incremental anchors " + describe(kept, fresh) + " vs rebuild " + describe(fresh, kept));
+        }
+
+        for (Side side : Side.values()) {
+            long mask = state.handOf(side);
+            Set<Long> fast = keys(board.legalMoves(mask));
+            Set<Long> slow = bruteForce(board, mask);
+            if (!fast.equals(slow)) {
+                fail(where, side + " legalMoves found " + fast.size() + ", brute force " + slow.size());
+            }
+        }
+
+        long boardHash = board.snapshot().hash();
+        if (board.hash() != boardHash) {
+            fail(where, "board hash " + Long.toHexString(board.hash()) + ", from scratch " + Long.toHexString(boardHash));
+        }
+        if (!state.isOver()) {
+            GameState scratch = new GameState(board.snapshot(), state.playerMask(), state.aiMask(),
+                    state.boneyardMask(), state.toMove());
+            if (state.hash() != scratch.hash()) {
+                fail(where, "game hash " + Long.toHexString(state.hash()) + ", from scratch " + Long.toHexString(scratch.hash()));
+            }
+        }
+    }
+
+    // every tile in the mask, every facing, every open anchor
+    private static Set<Long> bruteForce(BoardEngine board, long mask) {
+        Set<Long> keys = new HashSet<>();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            int tileId = Long.numberOfTrailingZeros(rest);
+            CDominoes tile = CDominoes.of(tileId);
+            boolean isDouble = TileSet.lowPip(tileId) == TileSet.highPip(tileId);
+            for (Orientation facing : FACINGS) {
+                if (isDouble && facing.isFlipped()) continue;
+                for (BoardEngine.Anchor a : board.anchors()) {
+                    if (board.fits(tile, facing, a)) keys.add(key(tileId, facing, a));
+                }
+            }
+        }
+        return keys;
+    }
+
+    // move keys, so moves from both sides compare by value
+    private static Set<Long> keys(List<BoardEngine.Move> moves) {
+        Set<Long> keys = new HashSet<>();
+        for (BoardEngine.Move move : moves) keys.add(key(move.tile.getId(), move.orientation, move.anchor));
+        return keys;
+    }
+
+    // same packing as Move.key, plus the required pip the anchor asks for
+    private static long key(int tileId, Orientation facing, BoardEngine.Anchor a) {
+        return tileId
+                | (long) facing.ordinal() << 5
+                | (long) (a.row & 0xFFFF) << 8
+                | (long) (a.col & 0xFFFF) << 24
+                | (long) (a.halfX & 0xFF) << 40
+                | (long) (a.halfY & 0xFF) << 48
+                | (long) (a.required == null ? 7 : a.required) << 56;
+    }
+
+    // counts the anchors in one set but not the other
+    private static String describe(Set<BoardEngine.Anchor> mine, Set<BoardEngine.Anchor> theirs) {
+        int only = 0;
+        for (BoardEngine.Anchor a : mine) if (!theirs.contains(a)) only++;
+        return mine.size() + " (" + only + " unmatched)";
+    }
+
+    // counts a mismatch, printing the first few
+    private void fail(String where, String reason) {
+        if (failures++ < SHOWN_FAILURES) System.out.println(where + ": " + reason);
+    }
+}
@@ -0,0 +1,359 @@
+package app;
+
+import ai.InfoSet;
+import ai.OpponentBelief;
+import ai.SearchPool;
+import ai.SearchResult;
+import ai.Strategies;
+import ai.Strategy;
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.CDominoes;
+import models.GameRandom;
+import models.Hand;
+import models.TileSet;
+import util.GameJournal;
+import util.GameState;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    headless self-play: ai against ai with no javafx and no turn delays
+    every game gets its own seeded deal and draws, so deals are reproducible;
+    the search strategies stop on a wall-clock budget (--millis), so their moves
+    and the games that follow can differ between runs and after a resume
+    games run in batches across all cores; after each batch the totals go to
+    the checkpoint file, and a rerun with the same settings resumes from it
+    --journal appends every game, move by move, to a binary game journal
+*/
+public final class Simulate {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "usage: Simulate [--games N] [--player NAME] [--ai NAME] [--millis MS]",
+            "                [--threads T] [--seed S] [--checkpoint FILE] [--every K] [--endgame true|false]",
+            "                [--journal FILE]",
+            "strategies: " + String.join(", ", Strategies.names()));
+
+    private Simulate() {}
+
+    // what one run plays
+    static final class Settings {
+        long games = 1000;
+        String player = "first";
+        String ai = "ismcts";
+        long millis = 20;
+        int threads = SearchPool.THREADS;
+        long seed = 1;
+        Path checkpoint;
+        long every = 1000;
+        boolean endgame = true;
+        Path journal;
+
+        // reads --name value pairs; unknown names throw
+        static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games":      settings.games = Long.parseLong(value); break;
+                    case "--player":     settings.player = value; break;
+                    case "--ai":         settings.ai = value; break;
+                    case "--millis":     settings.millis = Long.parseLong(value); break;
+                    case "--threads":    settings.threads = Integer.parseInt(value); break;
+                    case "--seed":       settings.seed = Long.parseLong(value); break;
+                    case "--checkpoint": settings.checkpoint = Paths.get(value); break;
+                    case "--every":      settings.every = Long.parseLong(value); break;
+                    case "--endgame":    settings.endgame = Boolean.parseBoolean(value); break;
+                    case "--journal":    settings.journal = Paths.get(value); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (settings.games < 0 || settings.millis < 1 || settings.threads < 1 || settings.every < 1) {
+                throw new IllegalArgumentException("games, millis, threads and every must be positive");
+            }
+            Strategies.create(settings.player);
+            Strategies.create(settings.ai);
+            return settings;
+        }
+
+        // the settings a checkpoint must share to be resumed
+        String identity() {
+            return "seed=" + seed + " player=" + player + " ai=" + ai + " millis=" + millis + " endgame=" + endgame;
+        }
+
+        // builds a seat's strategy, with the endgame solver unless turned off
+        Strategy create(String name) {
+            Strategy strategy = Strategies.create(name);
+            return endgame ? Strategies.withEndgame(strategy) : strategy;
+        }
+    }
+
+    // how one game went
+    static final class GameRecord {
+        final GameState.Outcome outcome;
+        final Side firstMover;
+        final int plays;
+        final int draws;
+        final int passes;
+
+        GameRecord(GameState.Outcome outcome, Side firstMover, int plays, int draws, int passes) {
+            this.outcome = outcome; this.firstMover = firstMover;
+            this.plays = plays; this.draws = draws; this.passes = passes;
+        }
+    }
+
+    // running totals; everything a checkpoint needs to resume
+    static final class Tally {
+        long games, playerWins, aiWins, blocked, playerFirst;
+        long plays, draws, passes;
+        long elapsedNanos;
+
+        // adds one finished game
+        void add(GameRecord game) {
+            games++;
+            if (game.outcome == GameState.Outcome.PLAYER_WON) playerWins++;
+            else if (game.outcome == GameState.Outcome.AI_WON) aiWins++;
+            else blocked++;
+            if (game.firstMover == Side.PLAYER) playerFirst++;
+            plays += game.plays;
+            draws += game.draws;
+            passes += game.passes;
+        }
+
+        // writes the totals into checkpoint properties
+        void store(Properties out) {
+            out.setProperty("games", Long.toString(games));
+            out.setProperty("playerWins", Long.toString(playerWins));
+            out.setProperty("aiWins", Long.toString(aiWins));
+            out.setProperty("blocked", Long.toString(blocked));
+            out.setProperty("playerFirst", Long.toString(playerFirst));
+            out.setProperty("plays", Long.toString(plays));
+            out.setProperty("draws", Long.toString(draws));
+            out.setProperty("passes", Long.toString(passes));
+            out.setProperty("elapsedNanos", Long.toString(elapsedNanos));
+        }
+
+        // reads totals written by store
+        static Tally load(Properties in) {
+            Tally tally = new Tally();
+            tally.games = Long.parseLong(in.getProperty("games", "0"));
+            tally.playerWins = Long.parseLong(in.getProperty("playerWins", "0"));
+            tally.aiWins = Long.parseLong(in.getProperty("aiWins", "0"));
+            tally.blocked = Long.parseLong(in.getProperty("blocked", "0"));
+            tally.playerFirst = Long.parseLong(in.getProperty("playerFirst", "0"));
+            tally.plays = Long.parseLong(in.getProperty("plays", "0"));
+            tally.draws = Long.parseLong(in.getProperty("draws", "0"));
+            tally.passes = Long.parseLong(in.getProperty("passes", "0"));
+            tally.elapsedNanos = Long.parseLong(in.getProperty("elapsedNanos", "0"));
+            return tally;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings;
+        try {
+            // one search thread per game; the games themselves fill the cores
+            if (System.getProperty("dominoes.ai.threads") == null) System.setProperty("dominoes.ai.threads", "1");
+            settings = Settings.parse(args);
+        } catch (IllegalArgumentException bad) {
+            System.err.println(bad.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Tally tally;
+        try {
+            tally = resume(settings);
+        } catch (IllegalStateException mismatch) {
+            System.err.println(mismatch.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (tally.games > 0) System.out.println("resuming after " + tally.games + " games from " + settings.checkpoint);
+        run(settings, tally);
+        report(settings, tally);
+    }
+
+    // plays the remaining games batch by batch
+    static void run(Settings settings, Tally tally) throws IOException, InterruptedException, ExecutionException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(settings.threads, task -> {
+            Thread worker = new Thread(task, "sim-" + threadCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+        // strategies keep solver tables, so each thread gets its own pair
+        ThreadLocal<Strategy[]> seats = ThreadLocal.withInitial(() -> new Strategy[] {
+                settings.create(settings.player), settings.create(settings.ai) });
+        ThreadLocal<GameJournal.Recorder> recorders = ThreadLocal.withInitial(GameJournal.Recorder::new);
+        // synced once a second; a crash loses at most that much
+        GameJournal journal = settings.journal == null ? null : GameJournal.open(settings.journal, 1000);
+
+        try {
+            while (tally.games < settings.games) {
+                long start = tally.games;
+                long end = Math.min(settings.games, start + settings.every);
+                long started = System.nanoTime();
+
+                List<Future<GameRecord>> batch = new ArrayList<>((int) (end - start));
+                for (long index = start; index < end; index++) {
+                    long game = index;
+                    batch.add(pool.submit(() -> {
+                        GameJournal.Recorder recorder = journal == null ? null : recorders.get();
+                        GameRecord record = play(settings, game, seats.get(), recorder);
+                        if (journal != null) journal.append(recorder);
+                        return record;
+                    }));
+                }
+                // merged in game order so totals never depend on scheduling
+                for (Future<GameRecord> game : batch) tally.add(game.get());
+                tally.elapsedNanos += System.nanoTime() - started;
+
+                // journal before checkpoint: a resume may repeat games, never lose them
+                if (journal != null) journal.sync();
+                if (settings.checkpoint != null) save(settings, tally);
+                System.out.printf("  %d/%d games, %.1f games/s%n", tally.games, settings.games, gamesPerSecond(tally));
+            }
+        } finally {
+            pool.shutdownNow();
+            if (journal != null) journal.close();
+        }
+    }
+
+    // plays one seeded game to the end, recording it when a recorder is given
+    static GameRecord play(Settings settings, long index, Strategy[] seats, GameJournal.Recorder recorder) {
+        GameRandom random = GameRandom.forGame(settings.seed, index);
+        Hand hand = new Hand(random);
+        long boneyard = TileSet.EMPTY;
+        for (CDominoes tile : hand.leftoverDominoes()) boneyard = TileSet.add(boneyard, tile.getId());
+        // same flip as TurnManager
+        Side first = random.coin().nextBoolean() ? Side.PLAYER : Side.AI;
+
+        GameState state = new GameState(new BoardEngine(), hand.getPlayerMask(), hand.getAiMask(), boneyard, first);
+        if (recorder != null) recorder.start(random.seed(), index, first, hand.getPlayerMask(), hand.getAiMask());
+        SplittableRandom draws = random.draws();
+        SplittableRandom searchSeeds = random.ai();
+        // beliefs[side] is what that side has learned about the other's hand
+        OpponentBelief[] beliefs = {
+                new OpponentBelief(TileSet.count(hand.getAiMask())),
+                new OpponentBelief(TileSet.count(hand.getPlayerMask())) };
+
+        int plays = 0, drawCount = 0, passes = 0;
+        while (!state.isOver()) {
+            Side mover = state.toMove();
+            OpponentBelief watcher = beliefs[GameState.other(mover).ordinal()];
+            if (state.mustDraw()) {
+                watcher.observeDraw(state.board().playableTileMask());
+                int tileId = state.drawRandom(draws);
+                if (recorder != null) recorder.draw(tileId);
+                drawCount++;
+            } else if (!state.canPlay()) {
+                watcher.observePass(state.board().playableTileMask());
+                state.pass();
+                if (recorder != null) recorder.pass();
+                passes++;
+            } else {
+                BoardEngine.Move move = choose(state, seats[mover.ordinal()], beliefs[mover.ordinal()],
+                        searchSeeds.nextLong(), settings.millis);
+                state.play(move);
+                if (recorder != null) recorder.play(move);
+                watcher.observePlay(move.tile.getId());
+                plays++;
+            }
+        }
+        if (recorder != null) recorder.end(state.outcome());
+        return new GameRecord(state.outcome(), first, plays, drawCount, passes);
+    }
+
+    // asks a seat's strategy and maps its answer onto this state's moves
+    private static BoardEngine.Move choose(GameState state, Strategy strategy, OpponentBelief belief,
+                                           long seed, long millis) {
+        Side mover = state.toMove();
+        InfoSet view = new InfoSet(state.board().snapshot(), mover, mover, state.handOf(mover),
+                TileSet.count(state.handOf(GameState.other(mover))), belief.copy());
+        SearchResult result = strategy.choose(view, seed, millis).join();
+
+        List<BoardEngine.Move> legal = state.legalMoves();
+        if (result.move != null) {
+            for (BoardEngine.Move move : legal) {
+                if (move.key() == result.move.key()) return move;
+            }
+        }
+        return legal.get(0);
+    }
+
+    // loads a matching checkpoint, or starts from zero
+    static Tally resume(Settings settings) throws IOException {
+        if (settings.checkpoint == null || !Files.exists(settings.checkpoint)) return new Tally();
+        Properties saved = new Properties();
+        try (Reader in = Files.newBufferedReader(settings.checkpoint)) {
+            saved.load(in);
+        }
+        String identity = saved.getProperty("identity");
+        if (!settings.identity().equals(identity)) {
+            throw new IllegalStateException("checkpoint " + settings.checkpoint + " was written for "
+                    + identity + ", not " + settings.identity());
+        }
+        return Tally.load(saved);
+    }
+
+    // writes the checkpoint beside the target, then swaps it in
+    static void save(Settings settings, Tally tally) throws IOException {
+        Properties out = new Properties();
+        out.setProperty("identity", settings.identity());
+        tally.store(out);
+        Path target = settings.checkpoint.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            out.store(writer, "dominoes self-play checkpoint");
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // prints the final summary
+    static void report(Settings settings, Tally tally) {
+        long games = Math.max(1, tally.games);
+        System.out.printf("games %d in %.1f s (%.1f games/s)%n",
+                tally.games, tally.elapsedNanos / 1e9, gamesPerSecond(tally));
+        System.out.printf("seat player [%s]: wins %d (%.1f%%)%n",
+                settings.player, tally.playerWins, 100.0 * tally.playerWins / games);
+        System.out.printf("seat ai     [%s]: wins %d (%.1f%%)%n",
+                settings.ai, tally.aiWins, 100.0 * tally.aiWins / games);
+        System.out.printf("blocked: %d (%.1f%%)%n", tally.blocked, 100.0 * tally.blocked / games);
+
+        // seat-games per strategy, so a mirror match counts both seats
+        if (settings.player.equalsIgnoreCase(settings.ai)) {
+            System.out.printf("strategy %s: wins %.1f%% of %d seat-games%n",
+                    settings.ai, 100.0 * (tally.playerWins + tally.aiWins) / (2.0 * games), 2 * tally.games);
+        } else {
+            System.out.printf("strategy %s: wins %.1f%%, strategy %s: wins %.1f%%%n",
+                    settings.player, 100.0 * tally.playerWins / games, settings.ai, 100.0 * tally.aiWins / games);
+        }
+        System.out.printf("avg length %.2f plays, %.2f draws, %.2f passes per game%n",
+                (double) tally.plays / games, (double) tally.draws / games, (double) tally.passes / games);
+        System.out.printf("player moved first in %d games, ai in %d%n",
+                tally.playerFirst, tally.games - tally.playerFirst);
+    }
+
+    // games per second over every batch so far
+    private static double gamesPerSecond(Tally tally) {
+        return tally.elapsedNanos <= 0 ? 0.0 : tally.games * 1e9 / tally.elapsedNanos;
+    }
+}
@@ -1,5 +1,13 @@
 package controllers;
 
+import ai.Difficulty;
+import ai.EndgameSolver;
+import ai.InfoSet;
+import ai.OpponentBelief;
+import ai.SearchPool;
+import ai.SearchResult;
+import ai.Strategy;
+import ai.TurnToken;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.scene.image.Image;
@@ -7,16 +15,27 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.util.Duration;
+import models.BoardEngine;
 import models.CDominoes;
 import models.Hand;
+import models.Orientation;
 import models.TableLayout;
+import models.TileSet;
 import models.AvailablePieces;
 import util.ConsoleLogger;
+import util.GameEvents;
+import util.GameMetrics;
+import util.Images;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 
 public class AIPlayer extends CPlayer {
 
+    // pause after each draw; a playable draw is thought about inside it
+    private static final long DRAW_PAUSE_MILLIS = 1500;
+
     private final TableLayout tableLayout;
     private final TurnManager turnManager;
     private final HBox computerHandRow;
@@ -24,109 +43,244 @@ public class AIPlayer extends CPlayer {
     private final Hand hand;
     private final AvailablePieces boneyard;
 
+    // picks moves; this class only applies them to the table
+    private final Strategy strategy;
+    private final SplittableRandom searchSeeds;
+
+    // what the player's hidden hand can hold
+    private final OpponentBelief opponent;
+
+    // thinking time per move
+    private final Difficulty difficulty;
+
     private PauseTransition waitTimer;
+    // the turn being thought about; a cancelled token's answer is dropped
+    private TurnToken thinking;
+    // true from turn start until the ai places or passes
+    private boolean inTurn;
+    private boolean paused;
+    private boolean stopped;
 
     // builds ai player with needed references
-    public AIPlayer(TableLayout tableLayout, TurnManager turnManager, HBox aiStrip, Hand hand, AvailablePieces boneyard) {
+    public AIPlayer(TableLayout tableLayout, TurnManager turnManager, HBox aiStrip, Hand hand, AvailablePieces boneyard,
+                    Strategy strategy, Difficulty difficulty, SplittableRandom searchSeeds) {
         this.tableLayout = tableLayout;
         this.turnManager = turnManager;
         this.computerHandRow = aiStrip;
         this.hand = hand;
         this.boneyard = boneyard;
+        this.strategy = strategy;
+        this.difficulty = difficulty;
+        this.searchSeeds = searchSeeds;
+        this.opponent = new OpponentBelief(hand.getPlayerCount());
+    }
+
+    // player drew, so nothing they held was playable
+    public void observeOpponentDraw() {
+        opponent.observeDraw(tableLayout.playableTileMask());
+    }
+
+    // player placed a tile from their hand
+    public void observeOpponentPlay(CDominoes tile) {
+        opponent.observePlay(tile.getId());
     }
 
-    // schedules ai move after a short delay
+    // starts the ai turn; with a playable tile the delay is thinking time
     public void takeTurnWithDelay() {
-        if (waitTimer != null) {
-            waitTimer.stop();
-            waitTimer = null;
-        }
-        waitTimer = new PauseTransition(Duration.seconds(3));
-        waitTimer.setOnFinished(e -> {
-            waitTimer = null;
-            doAIMove();
-        });
-        waitTimer.play();
+        if (stopped) return;
+        cancelPending();
+        inTurn = true;
+        if (paused) return;
+
+        if (hasAnyPlayable()) thinkThenPlace(difficulty.budgetMillis());
+        else schedule(Duration.millis(difficulty.budgetMillis()), this::doAIMove);
+    }
+
+    // menu covers the table: drops the search, the turn restarts on resume
+    public void pause() {
+        paused = true;
+        cancelPending();
+    }
+
+    // menu closed: restarts a turn that was cut off
+    public void resume() {
+        paused = false;
+        if (inTurn && turnManager.getTurn() == TurnManager.Side.AI) takeTurnWithDelay();
+    }
+
+    // table is being left: nothing more may run
+    public void stop() {
+        stopped = true;
+        inTurn = false;
+        cancelPending();
     }
 
     // chooses to place, draw, or pass
     private void doAIMove() {
-        if (turnManager.getTurn() != TurnManager.Side.AI) return;
+        if (stopped || paused || turnManager.getTurn() != TurnManager.Side.AI) return;
 
         if (hasAnyPlayable()) {
-            placeFirstLegal();
+            thinkThenPlace(DRAW_PAUSE_MILLIS);
             return;
         }
 
         boolean didDraw = drawOneIntoAIHand();
         if (didDraw) {
-            if (waitTimer != null) {
-                waitTimer.stop();
-            }
-            waitTimer = new PauseTransition(Duration.seconds(1.5));
-            waitTimer.setOnFinished(e -> {
-                waitTimer = null;
-                doAIMove();
-            });
-            waitTimer.play();
+            // the turn already waited its budget before drawing
+            if (hasAnyPlayable()) thinkThenPlace(DRAW_PAUSE_MILLIS);
+            else schedule(Duration.millis(DRAW_PAUSE_MILLIS), this::doAIMove);
             return;
         }
 
+        inTurn = false;
         ConsoleLogger.logPass(TurnManager.Side.AI);
         turnManager.next();
     }
 
+    // runs an action once after a delay, replacing any earlier one
+    private void schedule(Duration delay, Runnable action) {
+        if (waitTimer != null) waitTimer.stop();
+        waitTimer = new PauseTransition(delay);
+        waitTimer.setOnFinished(e -> {
+            waitTimer = null;
+            action.run();
+        });
+        waitTimer.play();
+    }
+
+    // stops the timer and any search in flight
+    private void cancelPending() {
+        if (waitTimer != null) {
+            waitTimer.stop();
+            waitTimer = null;
+        }
+        if (thinking != null) {
+            thinking.cancel();
+            thinking = null;
+        }
+    }
+
     // checks if any tile can be placed
     private boolean hasAnyPlayable() {
-        for (int index = 0; index < computerHandRow.getChildren().size(); index++) {
-            StackPane tileBox = (StackPane) computerHandRow.getChildren().get(index);
-            Object modelObject = tileBox.getProperties().get("model");
-            if (!(modelObject instanceof CDominoes)) continue;
-            CDominoes domino = (CDominoes) modelObject;
-
-            String startFacing = domino.getOrientation();
-            Optional<TableLayout.Placement> placementOption = tableLayout.findLegalPlacementAnywhere(domino);
-            int rotateLimit = 0;
-            while (!startFacing.equals(domino.getOrientation()) && rotateLimit++ < 4) {
-                CDominoes.rotateDomino(domino);
-            }
-            if (placementOption.isPresent()) return true;
-        }
-        return false;
+        return (hand.getAiMask() & tableLayout.playableTileMask()) != 0;
     }
 
     // places the first legal tile found
     private void placeFirstLegal() {
-        for (int index = 0; index < computerHandRow.getChildren().size(); index++) {
-            StackPane tileBox = (StackPane) computerHandRow.getChildren().get(index);
-            Object modelObject = tileBox.getProperties().get("model");
-            if (!(modelObject instanceof CDominoes)) continue;
-            CDominoes domino = (CDominoes) modelObject;
-
-            Optional<TableLayout.Placement> placementOption = tableLayout.findLegalPlacementAnywhere(domino);
-            if (placementOption.isEmpty()) continue;
-
-            TableLayout.Placement plan = placementOption.get();
-
-            boolean wantVertical = plan.vertical;
-            boolean isVertical = domino.getOrientation().startsWith("Vertical");
-            int rotateLimit = 0;
-            while (isVertical != wantVertical && rotateLimit++ < 4) {
-                CDominoes.rotateDomino(domino);
-                isVertical = domino.getOrientation().startsWith("Vertical");
+        List<BoardEngine.Move> moves = tableLayout.legalMoves(hand.getAiMask());
+        if (moves.isEmpty()) {
+            turnManager.next();
+            return;
+        }
+        placeMove(moves.get(0));
+    }
+
+    // thinks on a virtual thread for the budget, then places on the fx thread
+    private void thinkThenPlace(long budgetMillis) {
+        // the snapshot and seed are taken here, the strategy never sees live state
+        InfoSet info = currentInfo();
+        long seed = searchSeeds.nextLong();
+        TurnToken token = new TurnToken();
+        thinking = token;
+        long started = System.nanoTime();
+        GameEvents.AiDecision decision = new GameEvents.AiDecision();
+        decision.begin();
+
+        CompletableFuture<SearchResult> search = CompletableFuture
+                .supplyAsync(() -> token.attach(strategy.choose(info, seed, budgetMillis)), SearchPool.turns())
+                .thenCompose(answer -> answer);
+        search.thenRun(() -> GameMetrics.get().aiThink(System.nanoTime() - started));
+        search.whenComplete((result, error) -> {
+            decision.end();
+            if (!decision.shouldCommit()) return;
+            decision.strategy = strategy.name();
+            decision.budget = budgetMillis;
+            decision.handTiles = TileSet.count(info.myHand);
+            decision.endgame = EndgameSolver.applies(info);
+            decision.cancelled = error != null || token.isCancelled();
+            if (result != null) {
+                decision.searchTime = result.elapsedNanos;
+                decision.nodes = result.nodes;
+                decision.depth = result.depth;
             }
+            decision.commit();
+        });
+        if (EndgameSolver.applies(info)) {
+            search.whenComplete((result, error) -> {
+                if (error == null) {
+                    ConsoleLogger.logSolve(TurnManager.Side.AI, verdict(result.value), result.nodes, result.elapsedNanos);
+                }
+            });
+        }
+
+        // quick strategies still take the whole turn delay
+        CompletableFuture<Void> paced = new CompletableFuture<>();
+        schedule(Duration.millis(budgetMillis), () -> paced.complete(null));
+        placeWhenDone(token, search.thenCombine(paced, (result, done) -> result));
+    }
 
-            if (!tileBox.getChildren().isEmpty() && tileBox.getChildren().get(0) instanceof ImageView) {
-                ((ImageView) tileBox.getChildren().get(0)).setRotate(domino.getRotationDegrees());
+    // names a solver value from the ai's side
+    private static String verdict(int value) {
+        switch (value) {
+            case EndgameSolver.WIN:   return "forced win";
+            case EndgameSolver.BLOCK: return "best is a block";
+            case EndgameSolver.LOSS:  return "lost against best play";
+            default:                  return "out of time";
+        }
+    }
+
+    // what the ai knows right now, on a detached board
+    private InfoSet currentInfo() {
+        return new InfoSet(tableLayout.getEngine().snapshot(), TurnManager.Side.AI, TurnManager.Side.AI,
+                hand.getAiMask(), hand.getPlayerCount(), opponent.copy());
+    }
+
+    // places a finished search's move if it is still current
+    // a reseed or relayout only moves open ends; the move is checked against them below
+    private void placeWhenDone(TurnToken token, CompletableFuture<SearchResult> pending) {
+        BoardEngine live = tableLayout.getEngine();
+        long placedMask = live.placedMask();
+        long aiMask = hand.getAiMask();
+        pending.whenComplete((result, error) -> Platform.runLater(() -> {
+            // drops the answer if it was cancelled or the turn is over
+            if (token.isCancelled() || thinking != token) return;
+            thinking = null;
+            if (turnManager.getTurn() != TurnManager.Side.AI) return;
+            // tiles changed under the search: think again instead of stalling the turn
+            if (live.placedMask() != placedMask || hand.getAiMask() != aiMask) {
+                takeTurnWithDelay();
+                return;
             }
+            inTurn = false;
 
-            hand.getAiHand().remove(domino);
+            BoardEngine.Move chosen = null;
+            if (error == null && result.move != null) {
+                for (BoardEngine.Move move : tableLayout.legalMoves(aiMask)) {
+                    if (move.key() == result.move.key()) { chosen = move; break; }
+                }
+            }
+            if (chosen == null) placeFirstLegal();
+            else placeMove(chosen);
+        }));
+    }
 
-            tableLayout.commitPlacementAt(domino, tileBox, computerHandRow, plan);
+    // moves the chosen tile's node onto the table
+    private void placeMove(BoardEngine.Move move) {
+        StackPane tileBox = nodeFor(move.tile);
+        if (tileBox == null) {
+            turnManager.next();
             return;
         }
+        hand.removeFromAi(move.tile);
+        tableLayout.commitMove(move, tileBox, computerHandRow);
+    }
 
-        turnManager.next();
+    // finds the hand node showing a tile
+    private StackPane nodeFor(CDominoes tile) {
+        for (var child : computerHandRow.getChildren()) {
+            if (child.getProperties().get("model") == tile) return (StackPane) child;
+        }
+        return null;
     }
 
     // draws one tile into the ai hand
@@ -140,12 +294,14 @@ public class AIPlayer extends CPlayer {
             return false;
         }
 
-        hand.getAiHand().add(drawn);
+        hand.addToAi(drawn);
         ConsoleLogger.logDraw(TurnManager.Side.AI, drawn);
+        GameMetrics.get().draw();
+        GameEvents.boneyardDraw(TurnManager.Side.AI.name(), drawn.getId(), boneyard.size());
 
         var imageLink = getClass().getResource(drawn.getImage());
         if (imageLink != null) {
-            Image image = new Image(imageLink.toExternalForm(), true);
+            Image image = Images.load(imageLink.toExternalForm(), true);
             ImageView imageView = new ImageView(image);
             imageView.setPreserveRatio(true);
             imageView.setSmooth(true);
@@ -160,9 +316,8 @@ public class AIPlayer extends CPlayer {
                     if (parentPane != null) imageView.fitHeightProperty().bind(parentPane.heightProperty().subtract(12));
                 });
             }
-            imageView.setRotate(drawn.getRotationDegrees());
-
             StackPane tileSlot = new StackPane(imageView);
+            TableLayout.setFacing(tileSlot, Orientation.VERTICAL_UP);
             tileSlot.setPadding(new javafx.geometry.Insets(4));
             HBox.setHgrow(tileSlot, javafx.scene.layout.Priority.NEVER);
 
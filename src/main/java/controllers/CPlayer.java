@@ -1,12 +1,12 @@
 package controllers;
 
-import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import models.CDominoes;
+import models.Orientation;
 import models.TableLayout;
 
 import java.util.function.Consumer;
@@ -29,8 +29,7 @@ public class CPlayer {
             tileBox.addEventFilter(KeyEvent.KEY_RELEASED, event -> {
                 if ((event.getCode() == KeyCode.SPACE || event.getCode() == KeyCode.R)
                         && tileBox.getParent() == overlay && tileBox.isFocused()) {
-                    CDominoes.rotateDomino(domino);
-                    ((ImageView) tileBox.getChildren().get(0)).setRotate(domino.getRotationDegrees());
+                    TableLayout.setFacing(tileBox, TableLayout.facingOf(tileBox).next());
                     event.consume();
                 }
             });
@@ -67,7 +66,6 @@ public class CPlayer {
 
         // tries to place tile on board, or returns it to hand
         // restores default facing when returning to the hand
-        // limits rotation attempts to prevent endless spinning
         tileBox.setOnMouseReleased(event -> {
             boolean placed = false;
             if (tableLayout != null) {
@@ -98,11 +96,7 @@ public class CPlayer {
 
             tileBox.setFocusTraversable(false);
 
-            int rotateLimit = 0;
-            while (!"VerticalUp".equals(domino.getOrientation()) && rotateLimit++ < 3) {
-                CDominoes.rotateDomino(domino);
-            }
-            ((ImageView) tileBox.getChildren().get(0)).setRotate(domino.getRotationDegrees());
+            TableLayout.setFacing(tileBox, Orientation.VERTICAL_UP);
         });
     }
 }
@@ -3,19 +3,28 @@ package controllers;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
+import java.util.SplittableRandom;
+
 public class TurnManager {
     public enum Side { PLAYER, AI }
 
     // holds the value for both sides
     private final ObjectProperty<Side> turn = new SimpleObjectProperty<>();
+    private final SplittableRandom coin;
 
     public TurnManager() { 
+        this(new SplittableRandom());
+    }
+
+    // flips with the game's coin stream
+    public TurnManager(SplittableRandom coin) {
+        this.coin = coin;
         coinFlipStart(); 
     }
 
     // 50/50 chance for either player to start first
     public void coinFlipStart() {
-        turn.set(Math.random() < 0.5 ? Side.PLAYER : Side.AI);
+        turn.set(coin.nextBoolean() ? Side.PLAYER : Side.AI);
     }
 
     // for binding property
@@ -1,65 +1,102 @@
 package models;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class AvailablePieces {
 
-    private final ArrayList<CDominoes> leftoverDominoes = new ArrayList<>();
-    private final Random randomSource = new Random();
+    // shuffled once; tiles [0, count) remain and draws take from the top
+    private final CDominoes[] deck = new CDominoes[TileSet.TILE_COUNT];
+    private int count;
+    private final SplittableRandom randomSource;
+    private long tileMask = TileSet.EMPTY;
+
+    // sorted copy for the overlay, rebuilt after the deck changes
+    private List<CDominoes> sortedView;
 
     // creates empty boneyard tiles list
-    public AvailablePieces() {}
+    public AvailablePieces() {
+        this.randomSource = new SplittableRandom();
+    }
 
     // creates boneyard from given tiles list
-    public AvailablePieces(List<CDominoes> startTiles) {
-        if (startTiles != null) leftoverDominoes.addAll(startTiles);
+    public AvailablePieces(List<CDominoes> startTiles, SplittableRandom drawStream) {
+        this.randomSource = drawStream;
+        fill(startTiles);
     }
 
     // creates boneyard from hand leftovers
-    public AvailablePieces(Hand hand) {
-        if (hand != null) {
-            List<CDominoes> handLeftovers = hand.leftoverDominoes();
-            if (handLeftovers != null) leftoverDominoes.addAll(handLeftovers);
-        }
+    public AvailablePieces(Hand hand, SplittableRandom drawStream) {
+        this.randomSource = drawStream;
+        if (hand != null) fill(hand.leftoverDominoes());
     }
 
-    // returns live list for direct use
-    public ArrayList<CDominoes> getLeftoverDominoes() {
-        return leftoverDominoes;
+    // copies tiles in and shuffles them with the draw stream
+    private void fill(List<CDominoes> startTiles) {
+        if (startTiles == null) return;
+        for (CDominoes tile : startTiles) {
+            deck[count++] = tile;
+            tileMask = TileSet.add(tileMask, tile.getId());
+        }
+        for (int i = count - 1; i > 0; i--) {
+            swap(i, randomSource.nextInt(i + 1));
+        }
     }
 
-    // returns unchangeable view of leftovers
+    // returns leftover tiles in draw order, read only
     public List<CDominoes> view() {
-        return Collections.unmodifiableList(leftoverDominoes);
+        return Collections.unmodifiableList(Arrays.asList(deck).subList(0, count));
+    }
+
+    // returns leftover tiles sorted by pips, built only when asked
+    public List<CDominoes> sortedView() {
+        if (sortedView == null) {
+            List<CDominoes> sorted = new ArrayList<>(count);
+            for (long rest = tileMask; rest != 0; rest &= rest - 1) {
+                sorted.add(CDominoes.of(Long.numberOfTrailingZeros(rest)));
+            }
+            sortedView = Collections.unmodifiableList(sorted);
+        }
+        return sortedView;
     }
 
+    // returns leftover tile ids as a bitmask
+    public long getMask() { return tileMask; }
+
     // returns number of leftover tiles
-    public int size() { return leftoverDominoes.size(); }
+    public int size() { return count; }
 
     // returns if no leftover tiles remain
-    public boolean isEmpty() { return leftoverDominoes.isEmpty(); }
+    public boolean isEmpty() { return count == 0; }
 
-    // removes and returns random tile or null
-    // logs size before and after removal
+    // removes and returns the top tile or null
     public CDominoes drawRandom() {
-        if (leftoverDominoes.isEmpty()) {
-            System.out.println("[boneyard] drawRandom: EMPTY");
-            return null;
-        }
-        int sizeBefore = leftoverDominoes.size();
-        int pickIndex = randomSource.nextInt(leftoverDominoes.size());
-        CDominoes pickedTile = leftoverDominoes.remove(pickIndex);
-        int sizeAfter = leftoverDominoes.size();
+        if (count == 0) return null;
+        CDominoes pickedTile = deck[--count];
+        deck[count] = null;
+        tileMask = TileSet.remove(tileMask, pickedTile.getId());
+        sortedView = null;
         return pickedTile;
     }
 
-    // adds tile back into leftovers
+    // adds tile back at a random depth
     public void putBack(CDominoes tile) {
-        if (tile != null) {
-            leftoverDominoes.add(tile);
+        if (tile != null && count < deck.length) {
+            deck[count] = tile;
+            swap(count, randomSource.nextInt(count + 1));
+            count++;
+            tileMask = TileSet.add(tileMask, tile.getId());
+            sortedView = null;
         }
     }
+
+    // swaps two deck slots
+    private void swap(int i, int j) {
+        CDominoes held = deck[i];
+        deck[i] = deck[j];
+        deck[j] = held;
+    }
 }
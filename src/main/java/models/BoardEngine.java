@@ -0,0 +1,692 @@
+package models;
+
+import java.util.*;
+
+/*
+    pure board rules: occupancy, anchors and placement legality
+    positions use grid cells plus half-cell offsets, never pixels
+*/
+public final class BoardEngine {
+
+    public static final int DEFAULT_ROWS = 18;
+    public static final int DEFAULT_COLS = 40;
+
+    // lets a host veto slots, e.g. outside visible area
+    @FunctionalInterface
+    public interface SlotFilter {
+        boolean accepts(int row, int col, boolean vertical, int halfX, int halfY);
+    }
+
+    public enum Touch {
+        NORTH, SOUTH, WEST, EAST,
+        PERP_NORTH, PERP_SOUTH, PERP_WEST, PERP_EAST
+    }
+
+    public static final class Anchor {
+        public final int row, col;
+        public final boolean vertical;
+        public final Integer required;
+        public final Touch touch;
+        public final boolean incomingMustBeDouble;
+        public final int halfX, halfY;
+        final long key;
+        // placed index of the tile offering this end, -1 for seeds
+        final int owner;
+
+        Anchor(int row, int col, boolean vertical, Integer required, Touch touch,
+               boolean mustBeDouble, int halfX, int halfY, int owner) {
+            this.row = row; this.col = col; this.vertical = vertical; this.required = required;
+            this.touch = touch; this.incomingMustBeDouble = mustBeDouble;
+            this.halfX = halfX; this.halfY = halfY;
+            this.owner = owner;
+            this.key = Zobrist.anchor(row, col, vertical, touch.ordinal(), required == null ? -1 : required,
+                    mustBeDouble, halfX, halfY);
+        }
+        @Override public boolean equals(Object o) {
+            if (!(o instanceof Anchor)) return false;
+            Anchor a = (Anchor) o;
+            return row == a.row && col == a.col && vertical == a.vertical && touch == a.touch
+                    && halfX == a.halfX && halfY == a.halfY;
+        }
+        // same fields as equals, without boxing; anchor sets rehash every play
+        @Override public int hashCode() {
+            int h = row * 31 + col;
+            h = h * 31 + (vertical ? 1 : 0);
+            h = h * 31 + touch.ordinal();
+            h = h * 31 + halfX;
+            return h * 31 + halfY;
+        }
+    }
+
+    public static final class Placed {
+        public final CDominoes model;
+        public final Orientation facing;
+        public final int row, col;
+        public final boolean vertical;
+        public final int halfX, halfY;
+        public final boolean capNorthSouth;
+        // top/left and bottom/right values when placed
+        final int firstValue, secondValue;
+        final long key;
+
+        Placed(CDominoes model, Orientation facing, int row, int col, int halfX, int halfY, boolean capNorthSouth) {
+            this.model = model; this.facing = facing; this.row = row; this.col = col;
+            this.vertical = facing.isVertical();
+            this.halfX = halfX; this.halfY = halfY;
+            this.capNorthSouth = vertical && capNorthSouth;
+            this.firstValue = model.firstValue(facing);
+            this.secondValue = model.secondValue(facing);
+            this.key = Zobrist.placed(model.getId(), facing, row, col, halfX, halfY);
+        }
+        boolean isDouble() { return firstValue == secondValue; }
+    }
+
+    // one legal play: which tile, where, and which way it faces
+    public static final class Move {
+        public final CDominoes tile;
+        public final Anchor anchor;
+        public final Orientation orientation;
+
+        Move(CDominoes tile, Anchor anchor, Orientation orientation) {
+            this.tile = tile; this.anchor = anchor; this.orientation = orientation;
+        }
+        // packs tile, facing and slot into one comparable key
+        public long key() {
+            return tile.getId()
+                    | (long) orientation.ordinal() << 5
+                    | (long) (anchor.row & 0xFFFF) << 8
+                    | (long) (anchor.col & 0xFFFF) << 24
+                    | (long) (anchor.halfX & 0xFF) << 40
+                    | (long) (anchor.halfY & 0xFF) << 48;
+        }
+        @Override public String toString() {
+            return "Move{tile=" + tile.getId() + ", r=" + anchor.row + ", c=" + anchor.col
+                    + ", v=" + anchor.vertical + ", facing=" + orientation + "}";
+        }
+    }
+
+    private int rowCount, colCount;
+    private SlotFilter slotFilter = this::insideGrid;
+
+    private int seedVRow = -1, seedVCol = -1, seedHRow = -1, seedHCol = -1;
+
+    // placed index + 1 per cell, row-major, 0 when empty
+    private static final short EMPTY_CELL = 0;
+    private short[] grid = new short[0];
+    private final List<Placed> tableDominoes = new ArrayList<>();
+    private final LinkedHashSet<Anchor> anchors = new LinkedHashSet<>();
+
+    // xor of placed and open-anchor keys, patched on every change
+    private long hash;
+
+    private static final Orientation[] FACINGS = Orientation.values();
+
+    // anchors bucketed by required pip; seeds accept anything
+    private final List<Anchor> anyAnchors = new ArrayList<>();
+    private final List<Anchor>[] pipAnchors = newBuckets();
+    private final List<Anchor>[] doubleOnlyAnchors = newBuckets();
+    private boolean playableDirty = true;
+    private int openPips;
+    private long playableTiles;
+
+    // cells around a dropped anchor whose tiles may re-offer ends
+    private static final int REOFFER_REACH = 5;
+
+    // anchor changes per placement, newest first, for undo
+    private static final class MoveRecord {
+        final Placed placed;
+        final List<Anchor> removed = new ArrayList<>();
+        final List<Anchor> added = new ArrayList<>();
+        MoveRecord(Placed placed) { this.placed = placed; }
+    }
+    private final ArrayDeque<MoveRecord> history = new ArrayDeque<>();
+    private MoveRecord recording;
+    // tile whose ends are being offered, and tiles still due a re-offer
+    private int offering = -1;
+    private boolean[] reoffering;
+
+    // builds an empty board of the given size
+    public BoardEngine(int rows, int cols) {
+        setGridSize(rows, cols);
+    }
+
+    // builds an empty board with default size
+    public BoardEngine() {
+        this(DEFAULT_ROWS, DEFAULT_COLS);
+    }
+
+    // copies board and open ends into a detached engine for another thread
+    // the copy judges new slots by grid bounds, not the host filter, and has no undo history
+    public BoardEngine snapshot() {
+        BoardEngine copy = new BoardEngine(0, 0);
+        copy.rowCount = rowCount;
+        copy.colCount = colCount;
+        copy.grid = grid.clone();
+        copy.seedVRow = seedVRow; copy.seedVCol = seedVCol;
+        copy.seedHRow = seedHRow; copy.seedHCol = seedHCol;
+        for (Placed placedDomino : tableDominoes) {
+            copy.tableDominoes.add(placedDomino);
+            copy.hash ^= placedDomino.key;
+        }
+        for (Anchor a : anchors) copy.putAnchor(a);
+        return copy;
+    }
+
+    // updates grid size after a resize
+    public void setGridSize(int rows, int cols) {
+        rows = Math.max(0, rows);
+        cols = Math.max(0, cols);
+        if (rows == rowCount && cols == colCount) return;
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.grid = new short[rows * cols];
+        for (int index = 0; index < tableDominoes.size(); index++) {
+            Placed p = tableDominoes.get(index);
+            markCell(p.row, p.col, index);
+            markCell(p.vertical ? p.row + 1 : p.row, p.vertical ? p.col : p.col + 1, index);
+        }
+    }
+
+    // records a placed index in one cell if on grid
+    private void markCell(int row, int col, int index) {
+        if (inBounds(row, col)) grid[row * colCount + col] = (short) (index + 1);
+    }
+
+    // makes one empty anchor list per pip value
+    @SuppressWarnings("unchecked")
+    private static List<Anchor>[] newBuckets() {
+        List<Anchor>[] buckets = (List<Anchor>[]) new List<?>[TileSet.PIP_VALUES];
+        for (int pip = 0; pip < buckets.length; pip++) buckets[pip] = new ArrayList<>();
+        return buckets;
+    }
+
+    // installs host filter, or grid bounds when null
+    public void setSlotFilter(SlotFilter filter) {
+        this.slotFilter = filter != null ? filter : this::insideGrid;
+    }
+
+    // sets the first-move seed cells
+    public void setCenterSeed(int vRow, int vCol, int hRow, int hCol) {
+        seedVRow = vRow; seedVCol = vCol; seedHRow = hRow; seedHCol = hCol;
+    }
+
+    public int rows()              { return rowCount; }
+    public int cols()              { return colCount; }
+    public boolean isEmpty()       { return tableDominoes.isEmpty(); }
+    public int placedCount()       { return tableDominoes.size(); }
+    public Placed placed(int index) { return tableDominoes.get(index); }
+    public List<Placed> placed()   { return Collections.unmodifiableList(tableDominoes); }
+    public Collection<Anchor> anchors() { return Collections.unmodifiableSet(anchors); }
+
+    // returns ids of every tile on the board
+    public long placedMask() {
+        long mask = TileSet.EMPTY;
+        for (Placed placedDomino : tableDominoes) mask = TileSet.add(mask, placedDomino.model.getId());
+        return mask;
+    }
+
+    // returns the zobrist key of placed tiles and open ends
+    public long hash()             { return hash; }
+
+    // lists every legal move for one tile
+    public List<Move> legalMoves(CDominoes tile) {
+        List<Move> moves = new ArrayList<>();
+        collectMoves(tile, moves);
+        return moves;
+    }
+
+    // lists every legal move for a set of tiles
+    public List<Move> legalMoves(Iterable<CDominoes> tiles) {
+        List<Move> moves = new ArrayList<>();
+        for (CDominoes tile : tiles) collectMoves(tile, moves);
+        return moves;
+    }
+
+    // lists every legal move for the tiles in a mask
+    public List<Move> legalMoves(long tileMask) {
+        List<Move> moves = new ArrayList<>();
+        for (long rest = tileMask & playableTileMask(); rest != 0; rest &= rest - 1) {
+            collectMoves(CDominoes.of(Long.numberOfTrailingZeros(rest)), moves);
+        }
+        return moves;
+    }
+
+    // the legal move at an exact slot, or null; used by replay
+    public Move moveAt(CDominoes tile, Orientation facing, int row, int col, int halfX, int halfY) {
+        Anchor a = findAnchor(row, col, facing.isVertical(), halfX, halfY);
+        if (a == null || !fits(tile, facing, a)) return null;
+        return new Move(tile, a, facing);
+    }
+
+    // appends moves for each facing of one tile
+    private void collectMoves(CDominoes tile, List<Move> out) {
+        if (rowCount <= 0 || colCount <= 0) return;
+        int tileId = tile.getId();
+        if (!TileSet.contains(playableTileMask(), tileId)) return;
+
+        int low = TileSet.lowPip(tileId), high = TileSet.highPip(tileId);
+        for (Orientation facing : FACINGS) {
+            // a double looks the same flipped, so skip the repeat facings
+            if (low == high && facing.isFlipped()) continue;
+            collectIn(anyAnchors, tile, facing, out);
+            collectIn(pipAnchors[low], tile, facing, out);
+            if (high != low) collectIn(pipAnchors[high], tile, facing, out);
+            else collectIn(doubleOnlyAnchors[low], tile, facing, out);
+        }
+    }
+
+    // scans one bucket for free matching anchors
+    private void collectIn(List<Anchor> bucket, CDominoes tile, Orientation facing, List<Move> out) {
+        for (int i = 0; i < bucket.size(); i++) {
+            Anchor anchorItem = bucket.get(i);
+            if (fits(tile, facing, anchorItem)) out.add(new Move(tile, anchorItem, facing));
+        }
+    }
+
+    // checks a tile would fit a free anchor if it faced this way
+    public boolean fits(CDominoes tile, Orientation facing, Anchor a) {
+        if (a.vertical != facing.isVertical()) return false;
+        if (!anchorFree(a)) return false;
+        return matchesValues(tile.firstValue(facing), tile.secondValue(facing), a);
+    }
+
+    // returns anchors a tile could use, from its pip buckets
+    public List<Anchor> candidateAnchors(int tileId) {
+        int low = TileSet.lowPip(tileId), high = TileSet.highPip(tileId);
+        List<Anchor> candidates = new ArrayList<>(anyAnchors);
+        candidates.addAll(pipAnchors[low]);
+        if (high != low) candidates.addAll(pipAnchors[high]);
+        else candidates.addAll(doubleOnlyAnchors[low]);
+        return candidates;
+    }
+
+    // returns 7-bit mask of pips some anchor asks for
+    public int openPipMask() {
+        if (playableDirty) refreshPlayableMask();
+        return openPips;
+    }
+
+    // returns ids of tiles that fit some anchor
+    // any facing is allowed, so holding the pip is enough
+    public long playableTileMask() {
+        if (playableDirty) refreshPlayableMask();
+        return playableTiles;
+    }
+
+    // folds bucket sizes into pip and tile masks
+    private void refreshPlayableMask() {
+        int pips = 0;
+        long tiles = anyAnchors.isEmpty() ? TileSet.EMPTY : TileSet.ALL;
+        for (int pip = 0; pip <= TileSet.MAX_PIP; pip++) {
+            if (!pipAnchors[pip].isEmpty()) {
+                pips |= 1 << pip;
+                tiles |= TileSet.withPip(pip);
+            }
+            if (!doubleOnlyAnchors[pip].isEmpty()) {
+                pips |= 1 << pip;
+                tiles |= TileSet.doubleOf(pip);
+            }
+        }
+        openPips = pips;
+        playableTiles = tiles;
+        playableDirty = false;
+    }
+
+    // adds an anchor to the set and its pip bucket
+    private boolean putAnchor(Anchor a) {
+        if (!anchors.add(a)) return false;
+        bucketOf(a).add(a);
+        hash ^= a.key;
+        playableDirty = true;
+        return true;
+    }
+
+    // removes an anchor from the set and its pip bucket
+    private void removeAnchor(Anchor a) {
+        if (!anchors.remove(a)) return;
+        bucketOf(a).remove(a);
+        hash ^= a.key;
+        playableDirty = true;
+    }
+
+    // empties the anchor set and every bucket
+    private void clearAnchors() {
+        for (Anchor a : anchors) hash ^= a.key;
+        anchors.clear();
+        anyAnchors.clear();
+        for (int pip = 0; pip <= TileSet.MAX_PIP; pip++) {
+            pipAnchors[pip].clear();
+            doubleOnlyAnchors[pip].clear();
+        }
+        playableDirty = true;
+    }
+
+    // picks the bucket by required pip and double rule
+    private List<Anchor> bucketOf(Anchor a) {
+        if (a.required == null) return anyAnchors;
+        return a.incomingMustBeDouble ? doubleOnlyAnchors[a.required] : pipAnchors[a.required];
+    }
+
+    // finds the anchor at an exact slot
+    public Anchor findAnchor(int row, int col, boolean vertical, int halfX, int halfY) {
+        for (Anchor anchorItem : anchors) {
+            if (anchorItem.row == row && anchorItem.col == col && anchorItem.vertical == vertical
+                    && anchorItem.halfX == halfX && anchorItem.halfY == halfY) {
+                return anchorItem;
+            }
+        }
+        return null;
+    }
+
+    // commits a placement, returns null if illegal
+    public Placed commit(CDominoes domino, Orientation facing, int row, int col, int halfX, int halfY) {
+        boolean vertical = facing.isVertical();
+        int secondRow = vertical ? row + 1 : row;
+        int secondCol = vertical ? col : col + 1;
+        if (!inBounds(row, col) || !inBounds(secondRow, secondCol)) return null;
+        if (grid[row * colCount + col] != EMPTY_CELL || grid[secondRow * colCount + secondCol] != EMPTY_CELL) return null;
+
+        Anchor matchedAnchor = null;
+        if (!tableDominoes.isEmpty()) {
+            matchedAnchor = findAnchor(row, col, vertical, halfX, halfY);
+            if (matchedAnchor == null) return null;
+            if (!matchesValues(domino.firstValue(facing), domino.secondValue(facing), matchedAnchor)) return null;
+        }
+
+        boolean capNorthSouth = matchedAnchor != null && matchedAnchor.vertical
+                && (matchedAnchor.touch == Touch.PERP_NORTH || matchedAnchor.touch == Touch.PERP_SOUTH)
+                && matchedAnchor.incomingMustBeDouble;
+
+        Placed placedDomino = new Placed(domino, facing, row, col, halfX, halfY, capNorthSouth);
+        tableDominoes.add(placedDomino);
+        hash ^= placedDomino.key;
+        short occupant = (short) tableDominoes.size();
+        grid[row * colCount + col] = occupant;
+        grid[secondRow * colCount + secondCol] = occupant;
+
+        updateAnchorsAfter(placedDomino, matchedAnchor == null);
+        return placedDomino;
+    }
+
+    // places a move's tile as the move faces it, or null if no longer legal
+    public Placed play(Move move) {
+        Anchor a = move.anchor;
+        return commit(move.tile, move.orientation, a.row, a.col, a.halfX, a.halfY);
+    }
+
+    // takes back the last placement and its anchor changes
+    public Placed undo() {
+        MoveRecord record = history.pollFirst();
+        if (record == null) return null;
+
+        for (Anchor a : record.added) removeAnchor(a);
+        for (Anchor a : record.removed) putAnchor(a);
+
+        Placed placedDomino = record.placed;
+        markCell(placedDomino.row, placedDomino.col, -1);
+        markCell(placedDomino.vertical ? placedDomino.row + 1 : placedDomino.row,
+                 placedDomino.vertical ? placedDomino.col : placedDomino.col + 1, -1);
+        tableDominoes.remove(tableDominoes.size() - 1);
+        hash ^= placedDomino.key;
+        return placedDomino;
+    }
+
+    // patches anchors around one new tile instead of rebuilding
+    private void updateAnchorsAfter(Placed placedDomino, boolean firstTile) {
+        MoveRecord record = new MoveRecord(placedDomino);
+
+        if (firstTile) {
+            record.removed.addAll(anchors);
+            clearAnchors();
+        } else {
+            for (Anchor a : anchors) {
+                if (anchorFree(a) && !slotsOverlap(a.row, a.col, a.vertical, a.halfX, a.halfY,
+                        placedDomino.row, placedDomino.col, placedDomino.vertical, placedDomino.halfX, placedDomino.halfY)) continue;
+                record.removed.add(a);
+            }
+            for (Anchor a : record.removed) removeAnchor(a);
+        }
+
+        recording = record;
+        if (firstTile) offerAnchorsFor(tableDominoes.size() - 1);
+        else reofferAround(record.removed);
+        recording = null;
+
+        history.addFirst(record);
+    }
+
+    // lets tiles near dropped anchors reclaim freed space, newest tile last
+    // offers go in placement order, so slots settle the way a rebuild settles them
+    private void reofferAround(List<Anchor> dropped) {
+        reoffering = new boolean[tableDominoes.size()];
+        reoffering[reoffering.length - 1] = true;
+        for (Anchor a : dropped) markNear(a);
+        for (int index = 0; index < reoffering.length; index++) {
+            if (reoffering[index]) offerAnchorsFor(index);
+        }
+        reoffering = null;
+    }
+
+    // flags tiles close enough to an anchor to offer into its space
+    private void markNear(Anchor a) {
+        for (int row = a.row - REOFFER_REACH; row <= a.row + REOFFER_REACH + 1; row++) {
+            for (int col = a.col - REOFFER_REACH; col <= a.col + REOFFER_REACH + 1; col++) {
+                int index = occupantAt(row, col);
+                if (index >= 0) reoffering[index] = true;
+            }
+        }
+    }
+
+    // returns placed index at a cell, or -1
+    public int occupantAt(int row, int col) {
+        if (!inBounds(row, col)) return -1;
+        return grid[row * colCount + col] - 1;
+    }
+
+    // returns true if the cell holds no tile
+    public boolean isFree(int row, int col) {
+        return !inBounds(row, col) || grid[row * colCount + col] == EMPTY_CELL;
+    }
+
+    // tries to resolve the existing neighbor you matched
+    public Placed findNeighborFor(Placed placedDomino) {
+        int row = placedDomino.row, col = placedDomino.col;
+        // candidate neighbor top-left cells to probe (broad net; first hit wins)
+        int[] probes = placedDomino.vertical
+                ? new int[] { row - 2, col,   row + 2, col,   row, col + 2,   row, col - 1,   row - 1, col - 1,   row + 2, col - 1 }
+                : new int[] { row, col - 2,   row, col + 2,   row - 2, col,   row + 1, col,   row - 1, col,   row + 2, col };
+
+        for (int i = 0; i < probes.length; i += 2) {
+            int index = occupantAt(probes[i], probes[i + 1]);
+            if (index >= 0 && tableDominoes.get(index) != placedDomino) return tableDominoes.get(index);
+        }
+        return null;
+    }
+
+    // rebuilds all anchors from current board state
+    // used for reseeding; placements update anchors incrementally
+    public void rebuildAnchors() {
+        clearAnchors();
+        history.clear();
+
+        if (tableDominoes.isEmpty()) {
+            if (rowCount <= 0 || colCount <= 0) return;
+            if (seedVRow < 0) seedFromGrid();
+
+            offering = -1;
+            offerAnchor(true, seedVRow, seedVCol, null, Touch.SOUTH, false, 0, 0);
+            offerAnchor(false, seedHRow, seedHCol, null, Touch.EAST, false, 0, 0);
+            return;
+        }
+
+        for (int index = 0; index < tableDominoes.size(); index++) {
+            offerAnchorsFor(index);
+        }
+    }
+
+    // offers every open end of one placed tile
+    private void offerAnchorsFor(int index) {
+        Placed placedDomino = tableDominoes.get(index);
+        offering = index;
+        int row = placedDomino.row, col = placedDomino.col;
+        int hx = placedDomino.halfX, hy = placedDomino.halfY;
+        int first = placedDomino.firstValue, second = placedDomino.secondValue;
+
+        if (placedDomino.vertical) {
+            if (!placedDomino.capNorthSouth) {
+                offerAnchor(true, row - 2, col, first,  Touch.SOUTH, false, hx, hy);
+                offerAnchor(true, row + 2, col, second, Touch.NORTH, false, hx, hy);
+            }
+
+            if (placedDomino.isDouble()) {
+                offerAnchor(false, row, col - 2, first, Touch.PERP_EAST, false, hx, hy + 1);
+                offerAnchor(false, row, col + 1, first, Touch.PERP_WEST, false, hx, hy + 1);
+                if (!placedDomino.capNorthSouth) {
+                    offerAnchor(false, row - 1, col - 1, first,  Touch.PERP_SOUTH, false, hx + 1, hy);
+                    offerAnchor(false, row + 2, col - 1, second, Touch.PERP_NORTH, false, hx + 1, hy);
+                }
+            } else if (!placedDomino.capNorthSouth) {
+                offerAnchor(false, row - 1, col - 1, first,  Touch.PERP_SOUTH, true, hx + 1, hy);
+                offerAnchor(false, row + 2, col - 1, second, Touch.PERP_NORTH, true, hx + 1, hy);
+            }
+
+        } else {
+            offerAnchor(false, row, col - 2, first,  Touch.EAST, false, hx, hy);
+            offerAnchor(false, row, col + 2, second, Touch.WEST, false, hx, hy);
+
+            if (placedDomino.isDouble()) {
+                offerAnchor(true, row - 2, col, first, Touch.PERP_SOUTH, false, hx + 1, hy);
+                offerAnchor(true, row + 1, col, first, Touch.PERP_NORTH, false, hx + 1, hy);
+            } else {
+                offerAnchor(true, row - 1, col - 1, first,  Touch.PERP_EAST, true, hx, hy + 1);
+                offerAnchor(true, row - 1, col + 2, second, Touch.PERP_WEST, true, hx, hy + 1);
+            }
+        }
+    }
+
+    // adds an anchor when its cells exist and are free
+    private void offerAnchor(boolean vertical, int row, int col, Integer required, Touch touch,
+                             boolean mustBeDouble, int halfX, int halfY) {
+        if (!inBoundsPair(vertical, row, col) || !anchorCellsFree(vertical, row, col)) return;
+        addAnchorIfValid(new Anchor(row, col, vertical, required, touch, mustBeDouble, halfX, halfY, offering));
+    }
+
+    // adds an anchor if the slot is safe
+    private boolean addAnchorIfValid(Anchor candidate) {
+        if (!slotFilter.accepts(candidate.row, candidate.col, candidate.vertical, candidate.halfX, candidate.halfY)) return false;
+        List<Anchor> later = overlappingAnchors(candidate);
+        if (later == null) return false;
+        if (overlapsPlacedDominoes(candidate.row, candidate.col, candidate.vertical, candidate.halfX, candidate.halfY)) return false;
+
+        for (Anchor a : later) displace(a);
+        if (putAnchor(candidate) && recording != null) recording.added.add(candidate);
+        return true;
+    }
+
+    // same-facing anchors in the way, or null when an earlier tile's end holds the slot
+    // a rebuild offers tiles in placement order, so later tiles' ends give way
+    private List<Anchor> overlappingAnchors(Anchor candidate) {
+        List<Anchor> later = Collections.emptyList();
+        for (Anchor a : anchors) {
+            if (a.vertical != candidate.vertical) continue;
+            if (!slotsOverlap(a.row, a.col, a.vertical, a.halfX, a.halfY,
+                    candidate.row, candidate.col, candidate.vertical, candidate.halfX, candidate.halfY)) continue;
+            if (a.owner <= candidate.owner) return null;
+            if (later.isEmpty()) later = new ArrayList<>();
+            later.add(a);
+        }
+        return later;
+    }
+
+    // drops a later tile's end that lost its slot; its neighbours may now fit
+    private void displace(Anchor a) {
+        removeAnchor(a);
+        if (recording != null && !recording.added.remove(a)) recording.removed.add(a);
+        if (reoffering != null) markNear(a);
+    }
+
+    // checks overlap with already placed tiles
+    private boolean overlapsPlacedDominoes(int row, int col, boolean vertical, int halfX, int halfY) {
+        for (Placed p : tableDominoes) {
+            if (slotsOverlap(p.row, p.col, p.vertical, p.halfX, p.halfY, row, col, vertical, halfX, halfY)) return true;
+        }
+        return false;
+    }
+
+    // tests slot overlap in half-cell units
+    private static boolean slotsOverlap(int rowA, int colA, boolean verticalA, int halfXA, int halfYA,
+                                        int rowB, int colB, boolean verticalB, int halfXB, int halfYB) {
+        int ax = colA * 2 + halfXA, ay = rowA * 2 + halfYA;
+        int bx = colB * 2 + halfXB, by = rowB * 2 + halfYB;
+        int aw = verticalA ? 2 : 4, ah = verticalA ? 4 : 2;
+        int bw = verticalB ? 2 : 4, bh = verticalB ? 4 : 2;
+        return ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by;
+    }
+
+    // default filter keeps slots inside the grid
+    private boolean insideGrid(int row, int col, boolean vertical, int halfX, int halfY) {
+        int x = col * 2 + halfX, y = row * 2 + halfY;
+        int w = vertical ? 2 : 4, h = vertical ? 4 : 2;
+        return x >= 0 && y >= 0 && x + w <= colCount * 2 && y + h <= rowCount * 2;
+    }
+
+    // picks center seed cells from grid size
+    private void seedFromGrid() {
+        seedVRow = Math.max(0, rowCount / 2 - 1);
+        seedVCol = Math.max(0, (colCount - 1) / 2);
+        seedHRow = Math.max(0, (rowCount - 1) / 2);
+        seedHCol = Math.max(0, colCount / 2 - 1);
+    }
+
+    // returns true if the anchor cells are free
+    public boolean anchorFree(Anchor a) {
+        return anchorCellsFree(a.vertical, a.row, a.col);
+    }
+
+    // checks top/left and bottom/right values against the anchor
+    private static boolean matchesValues(int first, int second, Anchor a) {
+        if (a.required == null) return true;
+        int required = a.required;
+        boolean isDouble = first == second;
+        if (a.incomingMustBeDouble && !isDouble
+                && a.touch != Touch.NORTH && a.touch != Touch.SOUTH
+                && a.touch != Touch.WEST && a.touch != Touch.EAST) return false;
+
+        if (a.vertical) {
+            switch (a.touch) {
+                case NORTH:
+                case PERP_NORTH: return first == required;
+                case SOUTH:
+                case PERP_SOUTH: return second == required;
+                case PERP_EAST:
+                case PERP_WEST:  return first == required || second == required;
+                default: return false;
+            }
+        } else {
+            switch (a.touch) {
+                case WEST:
+                case PERP_WEST:  return first == required;
+                case EAST:
+                case PERP_EAST:  return second == required;
+                case PERP_NORTH:
+                case PERP_SOUTH: return first == required || second == required;
+                default: return false;
+            }
+        }
+    }
+
+    // returns true if a two-cell slot is in bounds
+    private boolean inBoundsPair(boolean vertical, int row, int col) {
+        return inBounds(row, col) && (vertical ? inBounds(row + 1, col) : inBounds(row, col + 1));
+    }
+
+    // returns true if both cells are free
+    private boolean anchorCellsFree(boolean vertical, int row, int col) {
+        return isFree(row, col) && (vertical ? isFree(row + 1, col) : isFree(row, col + 1));
+    }
+
+    // checks single cell is in grid bounds
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && col >= 0 && row < rowCount && col < colCount;
+    }
+}
@@ -1,16 +1,16 @@
 package models;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.SplittableRandom;
 
 public class CRandom {
     // create list to hold dominoes
     private ArrayList<CDominoes> dominoes;
 
     // constructor fills list with list from CDominoes and shuffles it
-    public CRandom() {
+    public CRandom(SplittableRandom dealStream) {
         this.dominoes = CDominoes.createGameDominoes();
-        Collections.shuffle(this.dominoes);
+        Collections.shuffle(this.dominoes, dealStream);
     }
 
     // creates a list of 10 random dominoes which will be given to both players in Hand.java
@@ -26,13 +26,9 @@ public class CRandom {
         return playersHand;
     }
 
-    // returns a list of remaining pieces to be displayed
+    // returns the undealt pieces in shuffled order
     public ArrayList<CDominoes> getRemainingPieces(){
-        ArrayList<CDominoes> remaining = new ArrayList<>(dominoes);
-
-        remaining.sort(Comparator.comparing(CDominoes::getTopValue).thenComparing(CDominoes::getBottomValue));
-
-        return remaining;
+        return dominoes;
     }
 
 }
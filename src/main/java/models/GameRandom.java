@@ -0,0 +1,48 @@
+package models;
+
+import java.util.SplittableRandom;
+
+/*
+    one seed per game, split into fixed streams for deal, draws, coin flip and ai
+    set -Ddominoes.seed=<n> to replay a logged game
+*/
+public final class GameRandom {
+
+    public static final String SEED_PROPERTY = "dominoes.seed";
+
+    // odd constant that spreads game indexes across seeds
+    private static final long GAME_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final SplittableRandom deal;
+    private final SplittableRandom draws;
+    private final SplittableRandom coin;
+    private final SplittableRandom ai;
+
+    // splits the streams in a fixed order so a seed replays exactly
+    public GameRandom(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.deal = root.split();
+        this.draws = root.split();
+        this.coin = root.split();
+        this.ai = root.split();
+    }
+
+    // uses the seed property when set, else a fresh seed
+    public static GameRandom newGame() {
+        Long fixed = Long.getLong(SEED_PROPERTY);
+        return new GameRandom(fixed != null ? fixed : new SplittableRandom().nextLong());
+    }
+
+    // derives an independent game from a batch seed, same on any thread
+    public static GameRandom forGame(long batchSeed, long gameIndex) {
+        return new GameRandom(new SplittableRandom(batchSeed + GAME_STRIDE * (gameIndex + 1)).nextLong());
+    }
+
+    public long seed()                { return seed; }
+    public SplittableRandom deal()    { return deal; }
+    public SplittableRandom draws()   { return draws; }
+    public SplittableRandom coin()    { return coin; }
+    public SplittableRandom ai()      { return ai; }
+}
@@ -8,12 +8,23 @@ public class Hand{
     private ArrayList<CDominoes> computerHand;
     private ArrayList<CDominoes> remainingPieces;
 
+    // tile id bitmasks mirroring each hand list
+    private long playerMask;
+    private long computerMask;
+
     public Hand(){
+        this(GameRandom.newGame());
+    }
+
+    // deals both hands from the game's deal stream
+    public Hand(GameRandom random){
         // creates a pool for the current deck in the game
-        CRandom deckPool = new CRandom();
+        CRandom deckPool = new CRandom(random.deal());
         this.playerHand = deckPool.dealHand();
         this.computerHand = deckPool.dealHand();
         this.remainingPieces = deckPool.getRemainingPieces();
+        this.playerMask = maskOf(playerHand);
+        this.computerMask = maskOf(computerHand);
     }
 
     // returns the player tiles list
@@ -26,18 +37,59 @@ public class Hand{
         return this.computerHand;
     }
 
+    // returns player tile ids as a bitmask
+    public long getPlayerMask(){
+        return playerMask;
+    }
+
+    // returns computer tile ids as a bitmask
+    public long getAiMask(){
+        return computerMask;
+    }
+
+    // adds a tile to the player hand
+    public void addToPlayer(CDominoes tile){
+        playerHand.add(tile);
+        playerMask = TileSet.add(playerMask, tile.getId());
+    }
+
+    // removes a tile from the player hand
+    public boolean removeFromPlayer(CDominoes tile){
+        playerMask = TileSet.remove(playerMask, tile.getId());
+        return playerHand.remove(tile);
+    }
+
+    // adds a tile to the computer hand
+    public void addToAi(CDominoes tile){
+        computerHand.add(tile);
+        computerMask = TileSet.add(computerMask, tile.getId());
+    }
+
+    // removes a tile from the computer hand
+    public boolean removeFromAi(CDominoes tile){
+        computerMask = TileSet.remove(computerMask, tile.getId());
+        return computerHand.remove(tile);
+    }
+
     // returns count of player tiles
     public int getPlayerCount(){
-        return playerHand.size();
+        return TileSet.count(playerMask);
     }
 
     // returns count of computer tiles
     public int getAiCount(){
-        return computerHand.size();
+        return TileSet.count(computerMask);
     }
 
     // returns tiles not dealt to hands
     public ArrayList<CDominoes> leftoverDominoes(){
         return this.remainingPieces;
     }
+
+    // builds a tile id mask from a list
+    static long maskOf(Iterable<CDominoes> tiles){
+        long mask = TileSet.EMPTY;
+        for (CDominoes tile : tiles) mask = TileSet.add(mask, tile.getId());
+        return mask;
+    }
 }
@@ -0,0 +1,33 @@
+package models;
+
+/*
+    which way a tile faces; rotation order matches the r/space key
+    flipped facings show the lower pip first
+*/
+public enum Orientation {
+    VERTICAL_UP(0, true, false),
+    HORIZONTAL_LEFT(-90, false, false),
+    VERTICAL_DOWN(-180, true, true),
+    HORIZONTAL_RIGHT(-270, false, true);
+
+    private static final Orientation[] VALUES = values();
+
+    private final int degrees;
+    private final boolean vertical;
+    private final boolean flipped;
+
+    Orientation(int degrees, boolean vertical, boolean flipped) {
+        this.degrees = degrees;
+        this.vertical = vertical;
+        this.flipped = flipped;
+    }
+
+    public int degrees()        { return degrees; }
+    public boolean isVertical() { return vertical; }
+    public boolean isFlipped()  { return flipped; }
+
+    // returns the facing one rotation step later
+    public Orientation next() {
+        return VALUES[(ordinal() + 1) % VALUES.length];
+    }
+}
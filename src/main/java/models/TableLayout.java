@@ -15,6 +15,8 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import controllers.TurnManager;
 import util.ConsoleLogger;
+import util.GameEvents;
+import util.GameMetrics;
 
 import java.util.*;
 
@@ -28,15 +30,16 @@ public class TableLayout {
 
     private final Canvas hintLayer = new Canvas();
 
-    private int rowCount = 0, colCount = 0;
     private double cellSize = 48;
     private static final double MIN_CELL_SIZE = 32;
     private static final double MAX_CELL_SIZE = 64;
 
-    private final Map<Cell, PlacedDomino> occupancy = new HashMap<>();
-    private final List<PlacedDomino> tableDominoes = new ArrayList<>();
+    private final BoardEngine engine = new BoardEngine(0, 0);
+    private final List<StackPane> placedNodes = new ArrayList<>();
 
-    private final LinkedHashSet<Anchor> anchors = new LinkedHashSet<>();
+    private double seedVerticalOffsetX, seedVerticalOffsetY;
+    private double seedHorizontalOffsetX, seedHorizontalOffsetY;
+    private double baseOffsetX, baseOffsetY;
 
     private static final String OUTLINE_STYLE =
             "-fx-border-color: rgba(255,255,255,0.40);"
@@ -64,6 +67,8 @@ public class TableLayout {
         hintLayer.setMouseTransparent(true);
         overlay.getChildren().add(0, hintLayer);
 
+        engine.setSlotFilter(this::slotVisible);
+
         bindGridToTable();
         repaintAnchorHints();
     }
@@ -71,8 +76,7 @@ public class TableLayout {
     // reseeds a fresh center if the table is empty
     public void forceReseedCenterIfEmpty() {
         ensureGridReady();
-        if (tableDominoes.isEmpty()) {
-            anchors.clear();
+        if (engine.isEmpty()) {
             rebuildAnchors();
         }
     }
@@ -80,25 +84,36 @@ public class TableLayout {
     public static final class Placement {
         public final int row, col;
         public final boolean vertical;
-        public final double offsetX, offsetY;
-        public Placement(int row, int col, boolean vertical, double offsetX, double offsetY) {
-            this.row = row; this.col = col; this.vertical = vertical; this.offsetX = offsetX; this.offsetY = offsetY;
+        public final int halfX, halfY;
+        public Placement(int row, int col, boolean vertical, int halfX, int halfY) {
+            this.row = row; this.col = col; this.vertical = vertical; this.halfX = halfX; this.halfY = halfY;
         }
         @Override public String toString() {
-            return "Placement{r=" + row + ", c=" + col + ", v=" + vertical + ", dx=" + offsetX + ", dy=" + offsetY + "}";
+            return "Placement{r=" + row + ", c=" + col + ", v=" + vertical + ", hx=" + halfX + ", hy=" + halfY + "}";
         }
     }
 
-    // checks if the domino is currently vertical
-    private static boolean isVerticalOrientation(CDominoes domino) {
-        return domino.getOrientation() != null && domino.getOrientation().startsWith("Vertical");
+    // wraps an engine anchor as a placement plan
+    private static Placement toPlacement(BoardEngine.Anchor anchor) {
+        return new Placement(anchor.row, anchor.col, anchor.vertical, anchor.halfX, anchor.halfY);
+    }
+
+    // returns the headless engine behind this view
+    public BoardEngine getEngine() {
+        return engine;
     }
 
-    // rotates a domino until it matches the needed facing
-    private static void rotateToOrientation(CDominoes domino, boolean wantVertical) {
-        int rotateGuard = 0;
-        while (isVerticalOrientation(domino) != wantVertical && rotateGuard++ < 4) {
-            CDominoes.rotateDomino(domino);
+    // reads the facing kept on a tile node, upright by default
+    public static Orientation facingOf(Node tileBox) {
+        Object facing = tileBox.getProperties().get("facing");
+        return facing instanceof Orientation ? (Orientation) facing : Orientation.VERTICAL_UP;
+    }
+
+    // stores a facing on a tile node and turns its image
+    public static void setFacing(StackPane tileBox, Orientation facing) {
+        tileBox.getProperties().put("facing", facing);
+        if (!tileBox.getChildren().isEmpty() && tileBox.getChildren().get(0) instanceof ImageView) {
+            tileBox.getChildren().get(0).setRotate(facing.degrees());
         }
     }
 
@@ -106,69 +121,81 @@ public class TableLayout {
     public boolean tryPlaceOnGrid(CDominoes domino, StackPane hitbox, HBox sourceStrip, String who) {
         ensureGridReady();
         if (hitbox.getParent() != overlay) return false;
-        if (rowCount <= 0 || colCount <= 0) return false;
+        if (engine.rows() <= 0 || engine.cols() <= 0) return false;
 
-        boolean wantVertical = isVerticalOrientation(domino);
+        Orientation facing = facingOf(hitbox);
         Point2D dropCenter = new Point2D(
                 hitbox.getLayoutX() + hitbox.getWidth()  / 2.0,
                 hitbox.getLayoutY() + hitbox.getHeight() / 2.0
         );
 
-        Anchor pick = nearestMatchingAnchor(dropCenter, domino, wantVertical, cellSize * 1.6);
+        BoardEngine.Anchor pick = nearestMatchingAnchor(dropCenter, domino, facing, cellSize * 1.6);
 
         // allows auto-rotate if the other facing is closer
         if (pick == null) {
-            boolean altVertical = !wantVertical;
-            Anchor altPick = nearestMatchingAnchor(dropCenter, domino, altVertical, cellSize * 1.6);
+            Orientation altFacing = facing.next();
+            BoardEngine.Anchor altPick = nearestMatchingAnchor(dropCenter, domino, altFacing, cellSize * 1.6);
             if (altPick != null) {
-                rotateToOrientation(domino, altVertical);
+                setFacing(hitbox, altFacing);
                 pick = altPick;
             }
         }
 
         if (pick == null) return false;
 
-        commitPlacementAt(domino, hitbox, sourceStrip,
-                new Placement(pick.row, pick.col, pick.vertical, pick.offsetX, pick.offsetY));
+        commitPlacementAt(domino, hitbox, sourceStrip, toPlacement(pick));
         return true;
     }
 
-    // finds any legal placement for this domino
-    public Optional<Placement> findLegalPlacementAnywhere(CDominoes domino) {
+    // lists legal moves for one tile
+    public List<BoardEngine.Move> legalMoves(CDominoes domino) {
         ensureGridReady();
-        if (rowCount <= 0 || colCount <= 0) return Optional.empty();
-
-        for (int rotation = 0; rotation < 4; rotation++) {
-            boolean wantVertical = domino.getOrientation().startsWith("Vertical");
-            for (Anchor anchorItem : anchors) {
-                if (anchorItem.vertical != wantVertical) continue;
-                if (!anchorFree(anchorItem)) continue;
-                if (!matchesAnchor(domino, anchorItem)) continue;
-                return Optional.of(new Placement(anchorItem.row, anchorItem.col, anchorItem.vertical, anchorItem.offsetX, anchorItem.offsetY));
-            }
-            CDominoes.rotateDomino(domino);
-        }
-        return Optional.empty();
+        return engine.legalMoves(domino);
+    }
+
+    // lists legal moves for every tile in a mask
+    public List<BoardEngine.Move> legalMoves(long tileMask) {
+        ensureGridReady();
+        return engine.legalMoves(tileMask);
+    }
+
+    // lists legal moves for every tile given
+    public List<BoardEngine.Move> legalMoves(Iterable<CDominoes> dominoes) {
+        ensureGridReady();
+        return engine.legalMoves(dominoes);
+    }
+
+    // turns the tile node to the move's facing and commits it
+    public void commitMove(BoardEngine.Move move, StackPane hitbox, HBox sourceStrip) {
+        setFacing(hitbox, move.orientation);
+        commitPlacementAt(move.tile, hitbox, sourceStrip, toPlacement(move.anchor));
+    }
+
+    // returns ids of tiles that fit some open anchor
+    public long playableTileMask() {
+        ensureGridReady();
+        return engine.playableTileMask();
     }
 
     // commits a placement onto the grid and advances turn
     public void commitPlacementAt(CDominoes domino, StackPane hitbox, HBox sourceStrip, Placement plan) {
+        long started = System.nanoTime();
+        GameEvents.PlacementCommit event = new GameEvents.PlacementCommit();
+        event.begin();
+        int anchorsBefore = engine.anchors().size();
         ensureGridReady();
 
-        Cell topLeftCell = new Cell(plan.row, plan.col);
-        Cell secondCell = plan.vertical ? new Cell(plan.row + 1, plan.col) : new Cell(plan.row, plan.col + 1);
-        if (!inBounds(topLeftCell) || !inBounds(secondCell)) return;
-        if (occupancy.containsKey(topLeftCell) || occupancy.containsKey(secondCell)) return;
-
-        Anchor matchedAnchor = null;
-        if (!tableDominoes.isEmpty()) {
-            for (Anchor anchorItem : anchors) {
-                if (anchorItem.row == plan.row && anchorItem.col == plan.col && anchorItem.vertical == plan.vertical
-                        && almost(anchorItem.offsetX, plan.offsetX) && almost(anchorItem.offsetY, plan.offsetY)) {
-                    matchedAnchor = anchorItem; break;
-                }
-            }
-            if (matchedAnchor == null || !matchesAnchor(domino, matchedAnchor)) return;
+        boolean wasEmpty = engine.isEmpty();
+        if (wasEmpty) {
+            baseOffsetX = plan.vertical ? seedVerticalOffsetX : seedHorizontalOffsetX;
+            baseOffsetY = plan.vertical ? seedVerticalOffsetY : seedHorizontalOffsetY;
+        }
+
+        BoardEngine.Placed placedDomino = engine.commit(domino, facingOf(hitbox), plan.row, plan.col, plan.halfX, plan.halfY);
+        if (placedDomino == null) {
+            GameMetrics.get().placement(System.nanoTime() - started);
+            finishPlacementEvent(event, domino, plan, anchorsBefore, true);
+            return;
         }
 
         if (hitbox.getParent() != overlay) {
@@ -176,31 +203,22 @@ public class TableLayout {
             overlay.getChildren().add(hitbox);
         }
 
-        boolean wasEmpty = tableDominoes.isEmpty();
-
         // first placement: simple "placed [x]"
         if (wasEmpty) {
-            ConsoleLogger.logFirstPlacement(turnManager.getTurn(), domino);
+            ConsoleLogger.logFirstPlacement(turnManager.getTurn(), placedDomino);
         }
 
-        boolean capNorthSouth = false;
-        if (matchedAnchor != null && matchedAnchor.vertical &&
-                (matchedAnchor.touch == Touch.PERP_NORTH || matchedAnchor.touch == Touch.PERP_SOUTH) &&
-                matchedAnchor.incomingMustBeDouble) {
-            capNorthSouth = true;
-        }
-
-        place(domino, hitbox, topLeftCell, plan.vertical, plan.offsetX, plan.offsetY, capNorthSouth);
+        place(placedDomino, hitbox);
         sourceStrip.getChildren().remove(hitbox);
 
         // non-first placements: "placed [x] against [y]"
-        if (!wasEmpty && matchedAnchor != null) {
-            PlacedDomino neighbor = findNeighborFor(plan, matchedAnchor);
+        if (!wasEmpty) {
+            BoardEngine.Placed neighbor = engine.findNeighborFor(placedDomino);
             if (neighbor != null) {
-                ConsoleLogger.logPlacedAgainst(turnManager.getTurn(), domino, neighbor.model);
+                ConsoleLogger.logPlacedAgainst(turnManager.getTurn(), placedDomino, neighbor);
             } else {
                 // graceful fallback if no neighbor found
-                ConsoleLogger.logFirstPlacement(turnManager.getTurn(), domino);
+                ConsoleLogger.logFirstPlacement(turnManager.getTurn(), placedDomino);
             }
         }
 
@@ -209,233 +227,85 @@ public class TableLayout {
             restyleAllPlacedDominoes();
         }
 
-        rebuildAnchors();
+        repaintAnchorHints();
+        GameMetrics.get().placement(System.nanoTime() - started);
+        GameMetrics.get().anchorsAfterMove(engine.anchors().size());
+        finishPlacementEvent(event, domino, plan, anchorsBefore, false);
         nextTurn();
     }
 
-    // tries to resolve the existing neighbor you matched
-    private PlacedDomino findNeighborFor(Placement plan, Anchor gate) {
-        // candidate neighbor top-left cells to probe (broad net; first hit wins)
-        List<Cell> probes = new ArrayList<>();
-
-        if (plan.vertical) {
-            // straight attachments
-            probes.add(new Cell(plan.row - 2, plan.col)); // above
-            probes.add(new Cell(plan.row + 2, plan.col)); // below
-            // side-perpendicular possibilities
-            probes.add(new Cell(plan.row,     plan.col + 2));
-            probes.add(new Cell(plan.row,     plan.col - 1));
-            probes.add(new Cell(plan.row - 1, plan.col - 1));
-            probes.add(new Cell(plan.row + 2, plan.col - 1));
-        } else {
-            // straight attachments
-            probes.add(new Cell(plan.row, plan.col - 2)); // left
-            probes.add(new Cell(plan.row, plan.col + 2)); // right
-            // top/bottom perpendicular possibilities
-            probes.add(new Cell(plan.row - 2, plan.col));
-            probes.add(new Cell(plan.row + 1, plan.col));
-            probes.add(new Cell(plan.row - 1, plan.col));
-            probes.add(new Cell(plan.row + 2, plan.col));
-        }
-
-        for (Cell c : probes) {
-            PlacedDomino pd = occupancy.get(c);
-            if (pd != null) return pd;
-        }
-        return null;
-    }
-
-    private enum Touch {
-        NORTH, SOUTH, WEST, EAST,
-        PERP_NORTH, PERP_SOUTH, PERP_WEST, PERP_EAST
-    }
-
-    private static final class Anchor {
-        final int row, col;
-        final boolean vertical;
-        final Integer required;
-        final Touch touch;
-        final boolean incomingMustBeDouble;
-        final double offsetX, offsetY;
-
-        Anchor(int row, int col, boolean vertical, Integer required, Touch touch,
-               boolean mustBeDouble, double offsetX, double offsetY) {
-            this.row = row; this.col = col; this.vertical = vertical; this.required = required;
-            this.touch = touch; this.incomingMustBeDouble = mustBeDouble;
-            this.offsetX = offsetX; this.offsetY = offsetY;
-        }
-        @Override public boolean equals(Object o) {
-            if (!(o instanceof Anchor)) return false;
-            Anchor a = (Anchor) o;
-            return row == a.row && col == a.col && vertical == a.vertical && touch == a.touch
-                    && almost(offsetX, a.offsetX) && almost(offsetY, a.offsetY);
-        }
-        @Override public int hashCode() {
-            return Objects.hash(row, col, vertical, touch, Math.rint(offsetX * 1000), Math.rint(offsetY * 1000));
-        }
+    // ends and fills in a placement event; cheap when the event is off
+    private void finishPlacementEvent(GameEvents.PlacementCommit event, CDominoes domino, Placement plan,
+                                      int anchorsBefore, boolean rejected) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.tile = domino.getId();
+        event.row = plan.row;
+        event.col = plan.col;
+        event.vertical = plan.vertical;
+        event.anchorsBefore = anchorsBefore;
+        event.anchorsAfter = engine.anchors().size();
+        event.placed = engine.placedCount();
+        event.rejected = rejected;
+        event.commit();
     }
 
-    // rebuilds all anchors from current board state
+    // rebuilds anchors, reseeding the center when empty
     private void rebuildAnchors() {
-        anchors.clear();
-
-        if (tableDominoes.isEmpty()) {
-            if (rowCount <= 0 || colCount <= 0) return;
-
-            CenterSeed seed = computeCenterSeed();
-            if (anchorCellsFree(true, seed.verticalTopLeft))
-                addAnchorIfValid(new Anchor(seed.verticalTopLeft.row, seed.verticalTopLeft.col, true, null, Touch.SOUTH, false, seed.verticalOffsetX, seed.verticalOffsetY));
-            if (anchorCellsFree(false, seed.horizontalTopLeft))
-                addAnchorIfValid(new Anchor(seed.horizontalTopLeft.row, seed.horizontalTopLeft.col, false, null, Touch.EAST, false, seed.horizontalOffsetX, seed.horizontalOffsetY));
-            repaintAnchorHints();
-            return;
-        }
-
-        for (PlacedDomino placedDomino : tableDominoes) {
-            if (placedDomino.vertical) {
-                if (!placedDomino.capNorthSouth) {
-                    Integer topVal = placedDomino.model.getTopValue();
-                    Cell above = new Cell(placedDomino.topLeft.row - 2, placedDomino.topLeft.col);
-                    if (topVal != null && inBoundsPair(true, above) && anchorCellsFree(true, above))
-                        addAnchorIfValid(new Anchor(above.row, above.col, true, topVal, Touch.SOUTH, false, placedDomino.offsetX, placedDomino.offsetY));
-
-                    Integer bottomVal = placedDomino.model.getBottomValue();
-                    Cell below = new Cell(placedDomino.topLeft.row + 2, placedDomino.topLeft.col);
-                    if (bottomVal != null && inBoundsPair(true, below) && anchorCellsFree(true, below))
-                        addAnchorIfValid(new Anchor(below.row, below.col, true, bottomVal, Touch.NORTH, false, placedDomino.offsetX, placedDomino.offsetY));
-                }
-
-                if (placedDomino.isVerticalDouble()) {
-                    int startRow = placedDomino.topLeft.row;
-                    int startCol = placedDomino.topLeft.col;
-
-                    Cell leftPerp = new Cell(startRow, startCol - 2);
-                    if (inBoundsPair(false, leftPerp) && anchorCellsFree(false, leftPerp)) {
-                        double dy = placedDomino.offsetY + cellSize / 2.0;
-                        Integer req = placedDomino.model.getTopValue();
-                        addAnchorIfValid(new Anchor(leftPerp.row, leftPerp.col, false, req, Touch.PERP_EAST, false, placedDomino.offsetX, dy));
-                    }
-                    Cell rightPerp = new Cell(startRow, startCol + 1);
-                    if (inBoundsPair(false, rightPerp) && anchorCellsFree(false, rightPerp)) {
-                        double dy = placedDomino.offsetY + cellSize / 2.0;
-                        Integer req = placedDomino.model.getTopValue();
-                        addAnchorIfValid(new Anchor(rightPerp.row, rightPerp.col, false, req, Touch.PERP_WEST, false, placedDomino.offsetX, dy));
-                    }
-
-                    if (!placedDomino.capNorthSouth) {
-                        Cell abovePerpH = new Cell(placedDomino.topLeft.row - 1, placedDomino.topLeft.col - 1);
-                        if (inBoundsPair(false, abovePerpH) && anchorCellsFree(false, abovePerpH)) {
-                            double dx = placedDomino.offsetX + cellSize / 2.0;
-                            Integer req = placedDomino.model.getTopValue();
-                            addAnchorIfValid(new Anchor(abovePerpH.row, abovePerpH.col, false, req, Touch.PERP_SOUTH, false, dx, placedDomino.offsetY));
-                        }
-                        Cell belowPerpH = new Cell(placedDomino.topLeft.row + 2, placedDomino.topLeft.col - 1);
-                        if (inBoundsPair(false, belowPerpH) && anchorCellsFree(false, belowPerpH)) {
-                            double dx = placedDomino.offsetX + cellSize / 2.0;
-                            Integer req = placedDomino.model.getBottomValue();
-                            addAnchorIfValid(new Anchor(belowPerpH.row, belowPerpH.col, false, req, Touch.PERP_NORTH, false, dx, placedDomino.offsetY));
-                        }
-                    }
-                } else {
-                    Cell abovePerp = new Cell(placedDomino.topLeft.row - 1, placedDomino.topLeft.col - 1);
-                    if (!placedDomino.capNorthSouth && inBoundsPair(false, abovePerp) && anchorCellsFree(false, abovePerp)) {
-                        double dx = placedDomino.offsetX + cellSize / 2.0;
-                        Integer req = placedDomino.model.getTopValue();
-                        addAnchorIfValid(new Anchor(abovePerp.row, abovePerp.col, false, req, Touch.PERP_SOUTH, true, dx, placedDomino.offsetY));
-                    }
-                    Cell belowPerp = new Cell(placedDomino.topLeft.row + 2, placedDomino.topLeft.col - 1);
-                    if (!placedDomino.capNorthSouth && inBoundsPair(false, belowPerp) && anchorCellsFree(false, belowPerp)) {
-                        double dx = placedDomino.offsetX + cellSize / 2.0;
-                        Integer req = placedDomino.model.getBottomValue();
-                        addAnchorIfValid(new Anchor(belowPerp.row, belowPerp.col, false, req, Touch.PERP_NORTH, true, dx, placedDomino.offsetY));
-                    }
-                }
-
-            } else {
-                Integer leftVal = placedDomino.model.getLeftValue();
-                Cell left = new Cell(placedDomino.topLeft.row, placedDomino.topLeft.col - 2);
-                if (leftVal != null && inBoundsPair(false, left) && anchorCellsFree(false, left))
-                    addAnchorIfValid(new Anchor(left.row, left.col, false, leftVal, Touch.EAST, false, placedDomino.offsetX, placedDomino.offsetY));
-
-                Integer rightVal = placedDomino.model.getRightValue();
-                Cell right = new Cell(placedDomino.topLeft.row, placedDomino.topLeft.col + 2);
-                if (rightVal != null && inBoundsPair(false, right) && anchorCellsFree(false, right))
-                    addAnchorIfValid(new Anchor(right.row, right.col, false, rightVal, Touch.WEST, false, placedDomino.offsetX, placedDomino.offsetY));
-
-                if (placedDomino.isHorizontalDouble()) {
-                    int startRow = placedDomino.topLeft.row;
-                    int leftCol = placedDomino.topLeft.col;
-
-                    Cell topPerp = new Cell(startRow - 2, leftCol);
-                    if (inBoundsPair(true, topPerp) && anchorCellsFree(true, topPerp)) {
-                        double dx = placedDomino.offsetX + cellSize / 2.0;
-                        Integer req = placedDomino.model.getLeftValue();
-                        addAnchorIfValid(new Anchor(topPerp.row, topPerp.col, true, req, Touch.PERP_SOUTH, false, dx, placedDomino.offsetY));
-                    }
-                    Cell bottomPerp = new Cell(startRow + 1, leftCol);
-                    if (inboundsPairAndFreeTrue(bottomPerp))
-                    {
-                        double dx = placedDomino.offsetX + cellSize / 2.0;
-                        Integer req = placedDomino.model.getLeftValue();
-                        addAnchorIfValid(new Anchor(bottomPerp.row, bottomPerp.col, true, req, Touch.PERP_NORTH, false, dx, placedDomino.offsetY));
-                    }
-
-                } else {
-                    int rRow = placedDomino.topLeft.row;
-                    int cLeft = placedDomino.topLeft.col;
-                    int cRight = cLeft + 1;
-
-                    Cell leftSidePerp = new Cell(rRow - 1, cLeft - 1);
-                    if (inBoundsPair(true, leftSidePerp) && anchorCellsFree(true, leftSidePerp)) {
-                        Integer req = placedDomino.model.getLeftValue();
-                        addAnchorIfValid(new Anchor(
-                                leftSidePerp.row, leftSidePerp.col,
-                                true, req, Touch.PERP_EAST, true,
-                                placedDomino.offsetX, placedDomino.offsetY + cellSize / 2.0
-                        ));
-                    }
-
-                    Cell rightSidePerp = new Cell(rRow - 1, cRight + 1);
-                    if (inBoundsPair(true, rightSidePerp) && anchorCellsFree(true, rightSidePerp)) {
-                        Integer req = placedDomino.model.getRightValue();
-                        addAnchorIfValid(new Anchor(
-                                rightSidePerp.row, rightSidePerp.col,
-                                true, req, Touch.PERP_WEST, true,
-                                placedDomino.offsetX, placedDomino.offsetY + cellSize / 2.0
-                        ));
-                    }
-                }
+        long started = System.nanoTime();
+        GameEvents.AnchorRebuild event = new GameEvents.AnchorRebuild();
+        event.begin();
+        int anchorsBefore = engine.anchors().size();
+        if (engine.isEmpty()) {
+            // no size yet to centre a seed in; the histogram only times real rebuilds
+            if (engine.rows() <= 0 || engine.cols() <= 0) {
+                finishRebuildEvent(event, anchorsBefore, true);
+                return;
             }
+            computeCenterSeed();
         }
-
+        engine.rebuildAnchors();
         repaintAnchorHints();
+        GameMetrics.get().rebuildAnchors(System.nanoTime() - started);
+        finishRebuildEvent(event, anchorsBefore, false);
     }
 
-    // tiny helper for readability (horizontal double bottom anchor)
-    private boolean inboundsPairAndFreeTrue(Cell cell) {
-        return inBoundsPair(true, cell) && anchorCellsFree(true, cell);
+    // ends and fills in a rebuild event; cheap when the event is off
+    private void finishRebuildEvent(GameEvents.AnchorRebuild event, int anchorsBefore, boolean skipped) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.anchorsBefore = anchorsBefore;
+        event.anchorsAfter = engine.anchors().size();
+        event.tilesScanned = skipped ? 0 : engine.placedCount();
+        event.skipped = skipped;
+        event.commit();
     }
 
-    // adds an anchor if the slot is safe
-    private boolean addAnchorIfValid(Anchor candidate) {
-        Point2D topLeftHint = cellTopLeftOnHint(new Cell(candidate.row, candidate.col));
-        double w = candidate.vertical ? cellSize : cellSize * 2.0;
-        double h = candidate.vertical ? cellSize * 2.0 : cellSize;
-        double x = topLeftHint.getX() + candidate.offsetX;
-        double y = topLeftHint.getY() + candidate.offsetY;
+    // rejects slots outside the table or under hand bars
+    private boolean slotVisible(int row, int col, boolean vertical, int halfX, int halfY) {
+        double w = vertical ? cellSize : cellSize * 2.0;
+        double h = vertical ? cellSize * 2.0 : cellSize;
+        double x = col * cellSize + pixelOffsetX(vertical, halfX);
+        double y = row * cellSize + pixelOffsetY(vertical, halfY);
 
         double ix = x + ANCHOR_INSET;
         double iy = y + ANCHOR_INSET;
         double iw = w - 2 * ANCHOR_INSET;
         double ih = h - 2 * ANCHOR_INSET;
 
-        if (!rectFullyInsideHint(ix, iy, iw, ih)) return false;
-        if (rectOverlapsExistingAnchor(ix, iy, iw, ih, candidate.vertical)) return false;
-        if (rectOverlapsHandBars(ix, iy, iw, ih)) return false;
-        if (rectOverlapsPlacedDominoes(ix, iy, iw, ih)) return false;
+        return rectFullyInsideHint(ix, iy, iw, ih) && !rectOverlapsHandBars(ix, iy, iw, ih);
+    }
 
-        anchors.add(candidate);
-        return true;
+    // converts half-cell steps to a pixel x offset
+    private double pixelOffsetX(boolean vertical, int halfX) {
+        double base = engine.isEmpty() ? (vertical ? seedVerticalOffsetX : seedHorizontalOffsetX) : baseOffsetX;
+        return base + halfX * cellSize / 2.0;
+    }
+
+    // converts half-cell steps to a pixel y offset
+    private double pixelOffsetY(boolean vertical, int halfY) {
+        double base = engine.isEmpty() ? (vertical ? seedVerticalOffsetY : seedHorizontalOffsetY) : baseOffsetY;
+        return base + halfY * cellSize / 2.0;
     }
 
     // checks if a rectangle fits inside the hint layer
@@ -445,23 +315,6 @@ public class TableLayout {
         return x >= 0.0 && y >= 0.0 && (x + w) <= W && (y + h) <= H;
     }
 
-    // checks overlap with anchors of same facing
-    private boolean rectOverlapsExistingAnchor(double x, double y, double w, double h, boolean candidateVertical) {
-        for (Anchor a : anchors) {
-            if (a.vertical != candidateVertical) continue;
-            Point2D topLeft = cellTopLeftOnHint(new Cell(a.row, a.col));
-            double aw = a.vertical ? cellSize : cellSize * 2.0;
-            double ah = a.vertical ? cellSize * 2.0 : cellSize;
-            double ax = topLeft.getX() + a.offsetX + ANCHOR_INSET;
-            double ay = topLeft.getY() + a.offsetY + ANCHOR_INSET;
-            double aiw = aw - 2 * ANCHOR_INSET;
-            double aih = ah - 2 * ANCHOR_INSET;
-
-            if (rectsOverlap(ax, ay, aiw, aih, x, y, w, h)) return true;
-        }
-        return false;
-    }
-
     // checks overlap with the hand bars
     private boolean rectOverlapsHandBars(double xHint, double yHint, double w, double h) {
         Bounds tableBounds = tableAreaOnOverlay();
@@ -475,24 +328,6 @@ public class TableLayout {
             || (aiBounds     != null && rectsOverlap(ox, oy, w, h, aiBounds.getMinX(),     aiBounds.getMinY(),     aiBounds.getWidth(),     aiBounds.getHeight()));
     }
 
-    // checks overlap with already placed tiles
-    private boolean rectOverlapsPlacedDominoes(double xHint, double yHint, double w, double h) {
-        if (tableDominoes.isEmpty()) return false;
-        Bounds tableBounds = tableAreaOnOverlay();
-        double ax = tableBounds.getMinX() + xHint;
-        double ay = tableBounds.getMinY() + yHint;
-
-        for (PlacedDomino placedDomino : tableDominoes) {
-            Node node = placedDomino.node;
-            double bx = node.getLayoutX();
-            double by = node.getLayoutY();
-            double bw = node.getLayoutBounds().getWidth();
-            double bh = node.getLayoutBounds().getHeight();
-            if (rectsOverlap(ax, ay, w, h, bx, by, bw, bh)) return true;
-        }
-        return false;
-    }
-
     // gets node bounds in overlay space safely
     private Bounds nodeBoundsOnOverlay(Node node) {
         try {
@@ -531,38 +366,25 @@ public class TableLayout {
         g.setStroke(HINT_STROKE);
         g.setFill(HINT_FILL);
 
-        for (Anchor a : anchors) {
-            Point2D px = cellTopLeftOnHint(new Cell(a.row, a.col));
+        for (BoardEngine.Anchor a : engine.anchors()) {
+            Point2D px = cellTopLeftOnHint(a.row, a.col);
             double w = a.vertical ? cellSize : cellSize * 2.0;
             double h = a.vertical ? cellSize * 2.0 : cellSize;
 
-            double x = px.getX() + a.offsetX;
-            double y = px.getY() + a.offsetY;
+            double x = px.getX() + pixelOffsetX(a.vertical, a.halfX);
+            double y = px.getY() + pixelOffsetY(a.vertical, a.halfY);
 
             g.fillRoundRect(x, y, w, h, HINT_ARC, HINT_ARC);
             g.strokeRoundRect(x, y, w, h, HINT_ARC, HINT_ARC);
         }
     }
 
-    // returns true if a two-cell slot is in bounds
-    private boolean inBoundsPair(boolean vertical, Cell topLeftCell) {
-        return inBounds(topLeftCell) && inBounds(vertical ? new Cell(topLeftCell.row + 1, topLeftCell.col) : new Cell(topLeftCell.row, topLeftCell.col + 1));
-    }
-
-    // returns true if both cells are free
-    private boolean anchorCellsFree(boolean vertical, Cell topLeftCell) {
-        return !occupancy.containsKey(topLeftCell)
-                && !occupancy.containsKey(vertical ? new Cell(topLeftCell.row + 1, topLeftCell.col) : new Cell(topLeftCell.row, topLeftCell.col + 1));
-    }
-
     // finds the nearest matching anchor within a radius
-    private Anchor nearestMatchingAnchor(Point2D dropCenter, CDominoes domino, boolean wantVertical, double radius) {
+    private BoardEngine.Anchor nearestMatchingAnchor(Point2D dropCenter, CDominoes domino, Orientation facing, double radius) {
         double bestDist2 = radius * radius;
-        Anchor best = null;
-        for (Anchor a : anchors) {
-            if (a.vertical != wantVertical) continue;
-            if (!anchorFree(a)) continue;
-            if (!matchesAnchor(domino, a)) continue;
+        BoardEngine.Anchor best = null;
+        for (BoardEngine.Anchor a : engine.candidateAnchors(domino.getId())) {
+            if (!engine.fits(domino, facing, a)) continue;
 
             Point2D center = anchorCenter(a);
             double dx = center.getX() - dropCenter.getX();
@@ -573,77 +395,19 @@ public class TableLayout {
         return best;
     }
 
-    // returns true if the anchor cells are free
-    private boolean anchorFree(Anchor a) {
-        Cell topLeftCell = new Cell(a.row, a.col);
-        return anchorCellsFree(a.vertical, topLeftCell);
-    }
-
     // computes an anchor's center point on the overlay
-    private Point2D anchorCenter(Anchor a) {
+    private Point2D anchorCenter(BoardEngine.Anchor a) {
         double w = a.vertical ? cellSize : cellSize * 2;
         double h = a.vertical ? cellSize * 2 : cellSize;
-        Point2D px = cellTopLeftOnOverlay(new Cell(a.row, a.col));
-        return new Point2D(px.getX() + a.offsetX + w / 2.0, px.getY() + a.offsetY + h / 2.0);
-    }
-
-    // checks if a domino's values match the anchor
-    private boolean matchesAnchor(CDominoes domino, Anchor a) {
-        if (a.required == null) return true;
-
-        if (a.vertical) {
-            Integer top = domino.getTopValue();
-            Integer bottom = domino.getBottomValue();
-            boolean isDouble = (top != null && bottom != null && top.equals(bottom));
-
-            switch (a.touch) {
-                case NORTH:      return top != null && top.equals(a.required);
-                case SOUTH:      return bottom != null && bottom.equals(a.required);
-                case PERP_EAST:
-                case PERP_WEST:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return (top != null && top.equals(a.required)) || (bottom != null && bottom.equals(a.required));
-                case PERP_SOUTH:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return bottom != null && bottom.equals(a.required);
-                case PERP_NORTH:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return top != null && top.equals(a.required);
-                default: return false;
-            }
-        } else {
-            Integer left = domino.getLeftValue();
-            Integer right = domino.getRightValue();
-            boolean isDouble = (left != null && right != null && left.equals(right));
-
-            switch (a.touch) {
-                case WEST:  return left  != null && left.equals(a.required);
-                case EAST:  return right != null && right.equals(a.required);
-                case PERP_EAST:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return right != null && right.equals(a.required);
-                case PERP_WEST:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return left  != null && left.equals(a.required);
-                case PERP_NORTH:
-                case PERP_SOUTH:
-                    if (a.incomingMustBeDouble && !isDouble) return false;
-                    return (left != null && left.equals(a.required)) || (right != null && right.equals(a.required));
-                default: return false;
-            }
-        }
+        Point2D px = cellTopLeftOnOverlay(a.row, a.col);
+        return new Point2D(px.getX() + pixelOffsetX(a.vertical, a.halfX) + w / 2.0,
+                           px.getY() + pixelOffsetY(a.vertical, a.halfY) + h / 2.0);
     }
 
     // places a domino node and locks its events
-    private void place(CDominoes domino, StackPane node, Cell topLeft, boolean vertical,
-                       double offsetX, double offsetY, boolean capNorthSouthFlag) {
-        PlacedDomino placedDomino = new PlacedDomino(domino, node, topLeft, vertical, offsetX, offsetY, capNorthSouthFlag);
-        tableDominoes.add(placedDomino);
-
-        occupancy.put(topLeft, placedDomino);
-        occupancy.put(vertical ? new Cell(topLeft.row + 1, topLeft.col) : new Cell(topLeft.row, topLeft.col + 1), placedDomino);
-
-        layoutOne(placedDomino);
+    private void place(BoardEngine.Placed placedDomino, StackPane node) {
+        placedNodes.add(node);
+        layoutOne(placedDomino, node);
 
         node.setOnMousePressed(null);
         node.setOnMouseDragged(null);
@@ -653,18 +417,15 @@ public class TableLayout {
     }
 
     // lays out one placed domino on the overlay
-    private void layoutOne(PlacedDomino placedDomino) {
-        Cell topLeft = placedDomino.topLeft;
+    private void layoutOne(BoardEngine.Placed placedDomino, StackPane node) {
         boolean vertical = placedDomino.vertical;
-        StackPane node = placedDomino.node;
-        CDominoes domino = placedDomino.model;
 
-        Point2D px = cellTopLeftOnOverlay(topLeft);
+        Point2D px = cellTopLeftOnOverlay(placedDomino.row, placedDomino.col);
         double w = vertical ? cellSize : cellSize * 2;
         double h = vertical ? cellSize * 2 : cellSize;
 
-        double x = px.getX() + placedDomino.offsetX;
-        double y = px.getY() + placedDomino.offsetY;
+        double x = px.getX() + pixelOffsetX(vertical, placedDomino.halfX);
+        double y = px.getY() + pixelOffsetY(vertical, placedDomino.halfY);
 
         node.setPadding(Insets.EMPTY);
         node.setManaged(false);
@@ -684,7 +445,7 @@ public class TableLayout {
                 iv.setFitWidth(h);
                 iv.setFitHeight(w);
             }
-            iv.setRotate(domino.getRotationDegrees());
+            iv.setRotate(placedDomino.facing.degrees());
         }
 
         node.toFront();
@@ -692,9 +453,9 @@ public class TableLayout {
 
     // restyles all placed tiles when hints turn off
     private void restyleAllPlacedDominoes() {
-        if (tableDominoes.isEmpty()) return;
-        for (PlacedDomino placedDomino : tableDominoes) {
-            if (placedDomino.node != null) placedDomino.node.setStyle(showFirstTurnHints ? OUTLINE_STYLE : null);
+        if (placedNodes.isEmpty()) return;
+        for (StackPane node : placedNodes) {
+            if (node != null) node.setStyle(showFirstTurnHints ? OUTLINE_STYLE : null);
         }
         repaintAnchorHints();
     }
@@ -705,8 +466,7 @@ public class TableLayout {
             layoutHintCanvas();
             computeGrid();
             relayoutAllPlaced();
-            repaintAnchorHints();
-            if (tableDominoes.isEmpty() && anchors.isEmpty()) rebuildAnchors();
+            refilterAnchors();
         };
         overlay.layoutBoundsProperty().addListener(relayout);
 
@@ -720,16 +480,26 @@ public class TableLayout {
         layoutHintCanvas();
         computeGrid();
         relayoutAllPlaced();
-        repaintAnchorHints();
-        if (tableDominoes.isEmpty() && anchors.isEmpty()) rebuildAnchors();
+        refilterAnchors();
 
         Platform.runLater(this::forceReseedCenterIfEmpty);
     }
 
+    // slotVisible moved with the table, so every open end is judged again
+    // ends now under a hand bar go, ends that came into view return
+    private void refilterAnchors() {
+        if (engine.isEmpty() && !engine.anchors().isEmpty()) {
+            repaintAnchorHints();
+            return;
+        }
+        rebuildAnchors();
+    }
+
     // re-lays out all placed tiles
     private void relayoutAllPlaced() {
-        if (tableDominoes.isEmpty()) return;
-        for (PlacedDomino placedDomino : tableDominoes) layoutOne(placedDomino);
+        for (int index = 0; index < placedNodes.size(); index++) {
+            layoutOne(engine.placed(index), placedNodes.get(index));
+        }
     }
 
     // sizes and positions the hint canvas to the table
@@ -745,39 +515,29 @@ public class TableLayout {
     private void computeGrid() {
         double w = hintLayer.getWidth();
         double h = hintLayer.getHeight();
-        if (w <= 0 || h <= 0) { rowCount = colCount = 0; return; }
+        if (w <= 0 || h <= 0) { engine.setGridSize(0, 0); return; }
 
         double target = Math.min(w, h) / 18.0;
         cellSize = clamp(target, MIN_CELL_SIZE, MAX_CELL_SIZE);
-        colCount = Math.max(3, (int) Math.floor(w / cellSize));
-        rowCount = Math.max(3, (int) Math.floor(h / cellSize));
+        engine.setGridSize(Math.max(3, (int) Math.floor(h / cellSize)),
+                           Math.max(3, (int) Math.floor(w / cellSize)));
     }
 
     // ensures grid math and anchors exist
     private void ensureGridReady() {
-        if (rowCount <= 0 || colCount <= 0) {
+        if (engine.rows() <= 0 || engine.cols() <= 0) {
             layoutHintCanvas();
             computeGrid();
             relayoutAllPlaced();
-            repaintAnchorHints();
-        }
-        if (tableDominoes.isEmpty() && anchors.isEmpty() && rowCount > 0 && colCount > 0) {
+            refilterAnchors();
+        } else if (engine.isEmpty() && engine.anchors().isEmpty()) {
             rebuildAnchors();
         }
     }
 
-    private static final class CenterSeed {
-        final Cell verticalTopLeft, horizontalTopLeft;
-        final double verticalOffsetX, verticalOffsetY, horizontalOffsetX, horizontalOffsetY;
-        CenterSeed(Cell vTopLeft, Cell hTopLeft, double vDX, double vDY, double hDX, double hDY) {
-            this.verticalTopLeft = vTopLeft; this.horizontalTopLeft = hTopLeft;
-            this.verticalOffsetX = vDX; this.verticalOffsetY = vDY;
-            this.horizontalOffsetX = hDX; this.horizontalOffsetY = hDY;
-        }
-    }
-
     // computes center-aligned seeds for the very first move
-    private CenterSeed computeCenterSeed() {
+    private void computeCenterSeed() {
+        int rowCount = engine.rows(), colCount = engine.cols();
         Bounds tableBounds = tableAreaOnOverlay();
         double ox = tableBounds.getMinX();
         double oy = tableBounds.getMinY();
@@ -788,25 +548,23 @@ public class TableLayout {
         double vTopLeftY = centerY - cellSize;
         int vCol = clampIndex((int) Math.floor((vTopLeftX - ox) / cellSize), 0, Math.max(0, colCount - 1));
         int vRow = clampIndex((int) Math.floor((vTopLeftY - oy) / cellSize), 0, Math.max(0, rowCount - 2));
-        Cell vTopLeft = new Cell(vRow, vCol);
-        Point2D vTopLeftPx = cellTopLeftOnOverlay(vTopLeft);
+        Point2D vTopLeftPx = cellTopLeftOnOverlay(vRow, vCol);
         double vCenterX = vTopLeftPx.getX() + cellSize / 2.0;
         double vCenterY = vTopLeftPx.getY() + cellSize;
-        double vDX = centerX - vCenterX;
-        double vDY = centerY - vCenterY;
+        seedVerticalOffsetX = centerX - vCenterX;
+        seedVerticalOffsetY = centerY - vCenterY;
 
         double hTopLeftX = centerX - cellSize;
         double hTopLeftY = centerY - cellSize / 2.0;
         int hCol = clampIndex((int) Math.floor((hTopLeftX - ox) / cellSize), 0, Math.max(0, colCount - 2));
         int hRow = clampIndex((int) Math.floor((hTopLeftY - oy) / cellSize), 0, Math.max(0, rowCount - 1));
-        Cell hTopLeft = new Cell(hRow, hCol);
-        Point2D hTopLeftPx = cellTopLeftOnOverlay(hTopLeft);
+        Point2D hTopLeftPx = cellTopLeftOnOverlay(hRow, hCol);
         double hCenterX = hTopLeftPx.getX() + cellSize;
         double hCenterY = hTopLeftPx.getY() + cellSize / 2.0;
-        double hDX = centerX - hCenterX;
-        double hDY = centerY - hCenterY;
+        seedHorizontalOffsetX = centerX - hCenterX;
+        seedHorizontalOffsetY = centerY - hCenterY;
 
-        return new CenterSeed(vTopLeft, hTopLeft, vDX, vDY, hDX, hDY);
+        engine.setCenterSeed(vRow, vCol, hRow, hCol);
     }
 
     // clamps index between safe bounds
@@ -815,11 +573,6 @@ public class TableLayout {
         return Math.max(low, Math.min(high, value));
     }
 
-    // checks single cell is in grid bounds
-    private boolean inBounds(Cell cell) {
-        return cell.row >= 0 && cell.col >= 0 && cell.row < rowCount && cell.col < colCount;
-    }
-
     // computes visible table bounds in overlay space
     private Bounds tableAreaOnOverlay() {
         Node tablePane = tableTop.getParent();
@@ -829,14 +582,14 @@ public class TableLayout {
     }
 
     // gets top-left pixel of a cell on overlay
-    private Point2D cellTopLeftOnOverlay(Cell cell) {
+    private Point2D cellTopLeftOnOverlay(int row, int col) {
         Bounds tableBounds = tableAreaOnOverlay();
-        return new Point2D(tableBounds.getMinX() + cell.col * cellSize, tableBounds.getMinY() + cell.row * cellSize);
+        return new Point2D(tableBounds.getMinX() + col * cellSize, tableBounds.getMinY() + row * cellSize);
     }
 
     // gets top-left pixel of a cell on hint layer
-    private Point2D cellTopLeftOnHint(Cell cell) {
-        return new Point2D(cell.col * cellSize, cell.row * cellSize);
+    private Point2D cellTopLeftOnHint(int row, int col) {
+        return new Point2D(col * cellSize, row * cellSize);
     }
 
     // advances to the next side
@@ -847,41 +600,6 @@ public class TableLayout {
     // clamps a number within limits
     private static double clamp(double value, double low, double high) { return Math.max(low, Math.min(high, value)); }
 
-    // compares doubles with tiny tolerance
-    private static boolean almost(double a, double b) { return Math.abs(a - b) < 0.0001; }
-
-    private static final class Cell {
-        final int row, col;
-        Cell(int row, int col) { this.row = row; this.col = col; }
-        @Override public boolean equals(Object o) { if (!(o instanceof Cell)) return false; Cell x = (Cell) o; return x.row == row && x.col == col; }
-        @Override public int hashCode() { return Objects.hash(row, col); }
-        @Override public String toString() { return "(" + row + "," + col + ")"; }
-    }
-
-    private static final class PlacedDomino {
-        final CDominoes model;
-        final StackPane node;
-        final Cell topLeft;
-        final boolean vertical;
-        final double offsetX, offsetY;
-        final boolean capNorthSouth;
-
-        PlacedDomino(CDominoes model, StackPane node, Cell topLeft, boolean vertical, double offsetX, double offsetY, boolean capNorthSouth) {
-            this.model = model; this.node = node; this.topLeft = topLeft; this.vertical = vertical; this.offsetX = offsetX; this.offsetY = offsetY;
-            this.capNorthSouth = vertical && capNorthSouth;
-        }
-        boolean isVerticalDouble() {
-            if (!vertical) return false;
-            Integer t = model.getTopValue(), b = model.getBottomValue();
-            return t != null && b != null && t.equals(b);
-        }
-        boolean isHorizontalDouble() {
-            if (vertical) return false;
-            Integer l = model.getLeftValue(), r = model.getRightValue();
-            return l != null && r != null && l.equals(r);
-        }
-    }
-
     public static final class AnchorHint {
         public final boolean vertical;
         public final Integer required;
@@ -898,8 +616,8 @@ public class TableLayout {
 
     // returns a read-only list of current anchor needs
     public List<AnchorHint> snapshotAnchors() {
-        List<AnchorHint> list = new ArrayList<>(anchors.size());
-        for (Anchor a : anchors) {
+        List<AnchorHint> list = new ArrayList<>(engine.anchors().size());
+        for (BoardEngine.Anchor a : engine.anchors()) {
             list.add(new AnchorHint(a.vertical, a.required, a.touch.name(), a.incomingMustBeDouble));
         }
         return Collections.unmodifiableList(list);
@@ -0,0 +1,106 @@
+package models;
+
+/*
+    compact double-six encoding: tile ids 0-27 and 28-bit masks
+    bit i of a mask is set when tile id i is present
+*/
+public final class TileSet {
+
+    public static final int TILE_COUNT = 28;
+    public static final int MAX_PIP = 6;
+    public static final int PIP_VALUES = MAX_PIP + 1;
+
+    public static final long ALL = (1L << TILE_COUNT) - 1;
+    public static final long EMPTY = 0L;
+
+    // low and high pip for every tile id
+    private static final int[] LOW_PIP = new int[TILE_COUNT];
+    private static final int[] HIGH_PIP = new int[TILE_COUNT];
+    private static final int[] ID_BY_PIPS = new int[PIP_VALUES * PIP_VALUES];
+
+    // tiles holding pip p, and the single double of p
+    private static final long[] WITH_PIP = new long[PIP_VALUES];
+    private static final long[] DOUBLE_OF = new long[PIP_VALUES];
+    public static final long DOUBLES;
+
+    static {
+        int id = 0;
+        long doubles = 0L;
+        for (int low = 0; low <= MAX_PIP; low++) {
+            for (int high = low; high <= MAX_PIP; high++) {
+                LOW_PIP[id] = low;
+                HIGH_PIP[id] = high;
+                ID_BY_PIPS[low * PIP_VALUES + high] = id;
+                ID_BY_PIPS[high * PIP_VALUES + low] = id;
+                WITH_PIP[low] |= 1L << id;
+                WITH_PIP[high] |= 1L << id;
+                if (low == high) {
+                    DOUBLE_OF[low] = 1L << id;
+                    doubles |= 1L << id;
+                }
+                id++;
+            }
+        }
+        DOUBLES = doubles;
+    }
+
+    private TileSet() {}
+
+    // returns tile id for two pips in any order
+    public static int id(int pipA, int pipB) { return ID_BY_PIPS[pipA * PIP_VALUES + pipB]; }
+
+    public static int lowPip(int id)          { return LOW_PIP[id]; }
+    public static int highPip(int id)         { return HIGH_PIP[id]; }
+    public static int pipSum(int id)          { return LOW_PIP[id] + HIGH_PIP[id]; }
+    public static boolean isDouble(int id)    { return LOW_PIP[id] == HIGH_PIP[id]; }
+
+    // returns mask of every tile holding pip p
+    public static long withPip(int pip)       { return WITH_PIP[pip]; }
+
+    // returns mask holding only the double of p
+    public static long doubleOf(int pip)      { return DOUBLE_OF[pip]; }
+
+    public static long bit(int id)                    { return 1L << id; }
+    public static long add(long mask, int id)         { return mask | (1L << id); }
+    public static long remove(long mask, int id)      { return mask & ~(1L << id); }
+    public static boolean contains(long mask, int id) { return (mask & (1L << id)) != 0; }
+    public static int count(long mask)                { return Long.bitCount(mask); }
+
+    // returns lowest tile id in mask, or -1
+    public static int first(long mask) { return mask == 0 ? -1 : Long.numberOfTrailingZeros(mask); }
+
+    // returns the n-th lowest tile id in mask
+    public static int nth(long mask, int n) {
+        for (int skip = 0; skip < n; skip++) mask &= mask - 1;
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    // sums pips over every tile in mask
+    public static int pipTotal(long mask) {
+        int total = 0;
+        while (mask != 0) {
+            total += pipSum(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+        return total;
+    }
+
+    // returns 7-bit mask of pips present in tiles
+    public static int pipsIn(long mask) {
+        int pips = 0;
+        for (int pip = 0; pip <= MAX_PIP; pip++) {
+            if ((mask & WITH_PIP[pip]) != 0) pips |= 1 << pip;
+        }
+        return pips;
+    }
+
+    // returns tiles holding any pip in the pip mask
+    public static long withAnyPip(int pipMask) {
+        long tiles = 0L;
+        while (pipMask != 0) {
+            tiles |= WITH_PIP[Integer.numberOfTrailingZeros(pipMask)];
+            pipMask &= pipMask - 1;
+        }
+        return tiles;
+    }
+}
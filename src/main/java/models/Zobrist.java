@@ -0,0 +1,79 @@
+package models;
+
+import java.util.SplittableRandom;
+
+/*
+    64-bit zobrist keys; a position hash is the xor of the keys of its parts
+    table keys come from a fixed seed so hashes match across runs
+    board slots are unbounded, so their keys are mixed from the slot fields
+*/
+public final class Zobrist {
+
+    private static final long KEY_SEED = 0x5DEECE66DL;
+
+    // [0] player, [1] ai; one key per tile id
+    private static final long[][] HAND = new long[2][TileSet.TILE_COUNT];
+    // one key per boneyard size 0..28
+    private static final long[] BONEYARD = new long[TileSet.TILE_COUNT + 1];
+    private static final long AI_TO_MOVE;
+    private static final long PLACED_SALT;
+    private static final long ANCHOR_SALT;
+
+    static {
+        SplittableRandom keys = new SplittableRandom(KEY_SEED);
+        for (long[] side : HAND) {
+            for (int id = 0; id < side.length; id++) side[id] = keys.nextLong();
+        }
+        for (int size = 0; size < BONEYARD.length; size++) BONEYARD[size] = keys.nextLong();
+        AI_TO_MOVE = keys.nextLong();
+        PLACED_SALT = keys.nextLong();
+        ANCHOR_SALT = keys.nextLong();
+    }
+
+    private Zobrist() {}
+
+    public static long handTile(boolean ai, int tileId) { return HAND[ai ? 1 : 0][tileId]; }
+    public static long boneyardSize(int size)           { return BONEYARD[size]; }
+    public static long aiToMove()                       { return AI_TO_MOVE; }
+
+    // xor of hand keys for every tile in mask
+    public static long hand(boolean ai, long mask) {
+        long key = 0L;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            key ^= HAND[ai ? 1 : 0][Long.numberOfTrailingZeros(rest)];
+        }
+        return key;
+    }
+
+    // key for a tile placed at a slot with a facing
+    public static long placed(int tileId, Orientation facing, int row, int col, int halfX, int halfY) {
+        long packed = tileId
+                | (long) facing.ordinal() << 5
+                | (long) (row & 0xFFFF) << 8
+                | (long) (col & 0xFFFF) << 24
+                | (long) (halfX & 0xFF) << 40
+                | (long) (halfY & 0xFF) << 48;
+        return mix(packed ^ PLACED_SALT);
+    }
+
+    // key for an open end; required is -1 for a free seed
+    public static long anchor(int row, int col, boolean vertical, int touch, int required,
+                              boolean mustBeDouble, int halfX, int halfY) {
+        long packed = (long) (row & 0xFFFF)
+                | (long) (col & 0xFFFF) << 16
+                | (long) (halfX & 0xFF) << 32
+                | (long) (halfY & 0xFF) << 40
+                | (long) (required & 0xF) << 48
+                | (long) touch << 52
+                | (vertical ? 1L << 56 : 0L)
+                | (mustBeDouble ? 1L << 57 : 0L);
+        return mix(packed ^ ANCHOR_SALT);
+    }
+
+    // splitmix64 finalizer, spreads packed fields over all bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
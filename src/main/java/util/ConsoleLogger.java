@@ -1,98 +1,181 @@
 package util;
 
 import controllers.TurnManager;
+import models.BoardEngine;
 import models.CDominoes;
+import models.Orientation;
 import models.TableLayout;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /*
     note: comments are only above functions, lower-case, ≤10 words
+    callers only fill a ring slot; a writer thread formats and prints
 */
 public final class ConsoleLogger {
 
-    private static final DateTimeFormatter clockFmt = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // lines at or above the level are kept
+    public enum Level { DEBUG, INFO, WARN, OFF }
 
+    private enum Kind { START, DRAW, PASS, FIRST, PLACED_AT, MATCH, SOLVE, WINNER, FINAL }
+
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    // per-game history cap, a game never gets near it
+    private static final int MAX_GAME_LINES = 512;
+
+    private static final Slot[] ring = new Slot[CAPACITY];
+    // next sequence to claim, and next sequence the writer reads
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile long tail;
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static volatile Level level = levelFromProperty();
+    private static volatile boolean writerIdle;
+    private static final Thread writer;
+
+    // writer-thread state: this game's lines and chain
     private static final List<String> moveLines = new ArrayList<>();
     private static final List<String> chainOrder = new ArrayList<>();
+    private static final StringBuilder batch = new StringBuilder(4096);
+    private static long clockSecond = Long.MIN_VALUE;
+    private static String clockText = "";
+    private static long droppedReported;
 
     // carryover runner-up tile (edge case: both hands 0, boneyard 1)
-    private static CDominoes carryoverRunnerUp = null;
+    private static volatile CDominoes carryoverRunnerUp = null;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) ring[i] = new Slot();
+        writer = new Thread(ConsoleLogger::writeLoop, "console-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(500)));
+    }
 
     private ConsoleLogger() {}
 
+    // one reusable event; sequence publishes the filled fields
+    private static final class Slot {
+        volatile long sequence = -1;
+        long claimed;
+        Kind kind;
+        TurnManager.Side side;
+        long time;
+        CDominoes tile, other;
+        Orientation facing, otherFacing;
+        int row, col;
+        boolean vertical;
+        long count, nanos;
+        String text, otherText;
+        List<CDominoes> tiles;
+    }
+
+    // sets the lowest level still printed
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    // true when lines at this level are kept
+    public static boolean isEnabled(Level at) {
+        Level current = level;
+        return current != Level.OFF && at.ordinal() >= current.ordinal();
+    }
+
     // resets all logs for a fresh game
-    public static void startGame() {
-        moveLines.clear();
-        chainOrder.clear();
+    public static void startGame(long seed) {
         carryoverRunnerUp = null;
-        println("");
-        println("=== domino game started @ " + now() + " ===");
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.START;
+        slot.count = seed;
+        publish(slot);
     }
 
     // prints a player drawing one tile
     public static void logDraw(TurnManager.Side side, CDominoes tile) {
-        String who = sideLabel(side);
-        String piece = tileAscii(tile);
-        String line = stamp("DRAW  | " + padRight(who, 7) + " drew " + piece);
-        moveLines.add(line);
-        println(line);
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.DRAW;
+        slot.side = side;
+        slot.tile = tile;
+        publish(slot);
     }
 
     // prints a player passing their turn
     public static void logPass(TurnManager.Side side) {
-        String who = sideLabel(side);
-        String line = stamp("PASS  | " + padRight(who, 7) + " passed (no move)");
-        moveLines.add(line);
-        println(line);
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.PASS;
+        slot.side = side;
+        publish(slot);
     }
 
     // prints first placement only, adds to chain silently
-    public static void logFirstPlacement(TurnManager.Side side, CDominoes tile) {
-        String who = sideLabel(side);
-        String piece = tileAscii(tile);
-        String line = stamp("PLACE | " + padRight(who, 7) + " placed " + piece);
-        moveLines.add(line);
-        println(line);
-
-        // record order, but do NOT print chain here
-        chainOrder.add(piece);
+    public static void logFirstPlacement(TurnManager.Side side, BoardEngine.Placed tile) {
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.FIRST;
+        slot.side = side;
+        slot.tile = tile.model;
+        slot.facing = tile.facing;
+        publish(slot);
     }
 
     // prints a normal placement with coordinates, adds to chain silently
-    public static void logMovePlaced(TurnManager.Side side, CDominoes tile, TableLayout.Placement plan) {
-        String who = sideLabel(side);
-        String piece = tileAscii(tile);
-        String face = plan.vertical ? "vertical" : "horizontal";
-        String place = "(row " + plan.row + ", col " + plan.col + ", " + face + ")";
-        String line = stamp("PLACE | " + padRight(who, 7) + " placed " + piece + " " + place);
-        moveLines.add(line);
-        println(line);
-
-        // record order, but do NOT print chain here
-        chainOrder.add(piece);
+    public static void logMovePlaced(TurnManager.Side side, CDominoes tile, Orientation facing, TableLayout.Placement plan) {
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.PLACED_AT;
+        slot.side = side;
+        slot.tile = tile;
+        slot.facing = facing;
+        slot.row = plan.row;
+        slot.col = plan.col;
+        slot.vertical = plan.vertical;
+        publish(slot);
     }
 
     // prints "placed [a] against [b]" and adds [a] to chain silently
-    public static void logPlacedAgainst(TurnManager.Side side, CDominoes placed, CDominoes matched) {
-        String who = sideLabel(side);
-        String a = tileAscii(placed);
-        String b = tileAscii(matched);
-        String line = stamp("MATCH | " + padRight(who, 7) + " placed " + a + " against " + b);
-        moveLines.add(line);
-        println(line);
+    public static void logPlacedAgainst(TurnManager.Side side, BoardEngine.Placed placed, BoardEngine.Placed matched) {
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.MATCH;
+        slot.side = side;
+        slot.tile = placed.model;
+        slot.facing = placed.facing;
+        slot.other = matched.model;
+        slot.otherFacing = matched.facing;
+        publish(slot);
+    }
 
-        // record order, but do NOT print chain here
-        chainOrder.add(a);
+    // prints an endgame solve with its verdict and speed
+    public static void logSolve(TurnManager.Side side, String verdict, long nodes, long elapsedNanos) {
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.SOLVE;
+        slot.side = side;
+        slot.text = verdict;
+        slot.count = nodes;
+        slot.nanos = elapsedNanos;
+        publish(slot);
     }
 
     // prints a short winner summary
     public static void logWinnerSimple(String winnerLabel) {
-        println(stamp("FINAL | winner: " + winnerLabel));
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+        slot.kind = Kind.WINNER;
+        slot.text = winnerLabel;
+        publish(slot);
     }
 
     // set carryover tile for runner-up (edge case)
@@ -111,53 +194,195 @@ public final class ConsoleLogger {
             String runnerUpLabel,
             List<CDominoes> runnerUpTiles
     ) {
+        Slot slot = claim(Level.INFO);
+        if (slot == null) return;
+
         // stitch carryover into runner-up list if present
         List<CDominoes> shown = new ArrayList<>();
         if (runnerUpTiles != null) shown.addAll(runnerUpTiles);
         if (carryoverRunnerUp != null) shown.add(carryoverRunnerUp);
 
-        String countText = String.valueOf(shown.size());
-        String tilesText = tilesAscii(shown);
-
-        println("");
-        println("=== Final Result :) @ " + now() + " ===");
-        println("WINNER: " + winnerLabel);
-        println("SECOND: " + runnerUpLabel);
-        println(runnerUpLabel + " kept: " + countText);
-        println(runnerUpLabel + "'s leftover tiles: " + tilesText);
-        println("Moves made: " + renderChain());
-        println("===============================");
+        slot.kind = Kind.FINAL;
+        slot.text = winnerLabel;
+        slot.otherText = runnerUpLabel;
+        slot.tiles = shown;
+        publish(slot);
     }
 
-    // returns the whole move log
+    // returns this game's move log so far
     public static List<String> getMoveLines() {
-        return Collections.unmodifiableList(moveLines);
+        flush(200);
+        synchronized (moveLines) {
+            return Collections.unmodifiableList(new ArrayList<>(moveLines));
+        }
     }
 
     // returns the chain in order
     public static List<String> getChainOrder() {
-        return Collections.unmodifiableList(chainOrder);
+        flush(200);
+        synchronized (moveLines) {
+            return Collections.unmodifiableList(new ArrayList<>(chainOrder));
+        }
     }
 
-    // builds ascii for one tile
-    private static String tileAscii(CDominoes tile) {
-        Integer a = valueA(tile);
-        Integer b = valueB(tile);
-        String left = a == null ? "?" : String.valueOf(a);
-        String right = b == null ? "?" : String.valueOf(b);
-        return "[" + left + "|" + right + "]";
+    // lines lost to a full ring since startup
+    public static long dropped() {
+        return dropped.get();
+    }
+
+    // waits until the writer printed everything published
+    public static void flush(long timeoutMillis) {
+        long target = head.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (tail < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            Thread.yield();
+        }
+    }
+
+    // claims a slot, or null when disabled or full
+    private static Slot claim(Level at) {
+        if (!isEnabled(at)) return null;
+        while (true) {
+            long next = head.get();
+            if (next - tail >= CAPACITY) {
+                dropped.incrementAndGet();
+                return null;
+            }
+            if (head.compareAndSet(next, next + 1)) {
+                Slot slot = ring[(int) (next & MASK)];
+                slot.claimed = next;
+                slot.time = System.currentTimeMillis();
+                return slot;
+            }
+        }
+    }
+
+    // hands a filled slot to the writer
+    private static void publish(Slot slot) {
+        slot.sequence = slot.claimed;
+        if (writerIdle) LockSupport.unpark(writer);
+    }
+
+    // drains published slots in order, printing in batches
+    private static void writeLoop() {
+        while (true) {
+            long next = tail;
+            Slot slot = ring[(int) (next & MASK)];
+            if (slot.sequence != next) {
+                if (batch.length() > 0) printBatch();
+                writerIdle = true;
+                if (ring[(int) (next & MASK)].sequence != next) LockSupport.parkNanos(50_000_000L);
+                writerIdle = false;
+                continue;
+            }
+            try {
+                format(slot);
+            } catch (RuntimeException bad) {
+                batch.append("[log] could not format ").append(slot.kind).append(": ").append(bad).append('\n');
+            }
+            slot.tiles = null;
+            tail = next + 1;
+            if (batch.length() > 8192) printBatch();
+        }
+    }
+
+    // prints and clears the pending text
+    private static void printBatch() {
+        long lost = dropped.get();
+        if (lost != droppedReported) {
+            batch.append("[log] ").append(lost - droppedReported).append(" lines dropped, buffer full\n");
+            droppedReported = lost;
+        }
+        PrintStream out = System.out;
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+    }
+
+    // turns one event into its console lines
+    private static void format(Slot slot) {
+        String who = sideLabel(slot.side);
+        switch (slot.kind) {
+            case START:
+                synchronized (moveLines) {
+                    moveLines.clear();
+                    chainOrder.clear();
+                }
+                batch.append('\n');
+                batch.append("=== domino game started @ ").append(clock(slot.time))
+                        .append(" (seed ").append(slot.count).append(") ===\n");
+                break;
+            case DRAW:
+                move(slot.time, "DRAW  | " + who + " drew " + tileAscii(slot.tile), null);
+                break;
+            case PASS:
+                move(slot.time, "PASS  | " + who + " passed (no move)", null);
+                break;
+            case FIRST: {
+                String piece = tileAscii(slot.tile, slot.facing);
+                move(slot.time, "PLACE | " + who + " placed " + piece, piece);
+                break;
+            }
+            case PLACED_AT: {
+                String piece = tileAscii(slot.tile, slot.facing);
+                String face = slot.vertical ? "vertical" : "horizontal";
+                move(slot.time, "PLACE | " + who + " placed " + piece
+                        + " (row " + slot.row + ", col " + slot.col + ", " + face + ")", piece);
+                break;
+            }
+            case MATCH: {
+                String piece = tileAscii(slot.tile, slot.facing);
+                move(slot.time, "MATCH | " + who + " placed " + piece
+                        + " against " + tileAscii(slot.other, slot.otherFacing), piece);
+                break;
+            }
+            case SOLVE: {
+                long nodesPerSecond = slot.nanos <= 0 ? 0 : (long) (slot.count * 1e9 / slot.nanos);
+                stamped(slot.time, "SOLVE | " + who + " " + slot.text + ", " + slot.count + " nodes in "
+                        + slot.nanos / 1_000_000 + " ms (" + nodesPerSecond + " nodes/s)");
+                break;
+            }
+            case WINNER:
+                stamped(slot.time, "FINAL | winner: " + slot.text);
+                break;
+            case FINAL:
+                batch.append('\n');
+                batch.append("=== Final Result :) @ ").append(clock(slot.time)).append(" ===\n");
+                batch.append("WINNER: ").append(slot.text).append('\n');
+                batch.append("SECOND: ").append(slot.otherText).append('\n');
+                batch.append(slot.otherText).append(" kept: ").append(slot.tiles.size()).append('\n');
+                batch.append(slot.otherText).append("'s leftover tiles: ").append(tilesAscii(slot.tiles)).append('\n');
+                batch.append("Moves made: ").append(renderChain()).append('\n');
+                batch.append("===============================\n");
+                break;
+        }
     }
 
-    // picks first value by current facing
-    private static Integer valueA(CDominoes tile) {
-        boolean isVertical = tile.getOrientation() != null && tile.getOrientation().startsWith("Vertical");
-        return isVertical ? tile.getTopValue() : tile.getLeftValue();
+    // prints a move line and keeps it for this game
+    private static void move(long time, String text, String chainPiece) {
+        String line = stamped(time, text);
+        synchronized (moveLines) {
+            if (moveLines.size() < MAX_GAME_LINES) moveLines.add(line);
+            if (chainPiece != null && chainOrder.size() < MAX_GAME_LINES) chainOrder.add(chainPiece);
+        }
+    }
+
+    // appends a time stamped line, returns it
+    private static String stamped(long time, String text) {
+        String line = "[" + clock(time) + "] " + text;
+        batch.append(line).append('\n');
+        return line;
+    }
+
+    // builds ascii for one tile, upright
+    private static String tileAscii(CDominoes tile) {
+        return tileAscii(tile, Orientation.VERTICAL_UP);
     }
 
-    // picks second value by current facing
-    private static Integer valueB(CDominoes tile) {
-        boolean isVertical = tile.getOrientation() != null && tile.getOrientation().startsWith("Vertical");
-        return isVertical ? tile.getBottomValue() : tile.getRightValue();
+    // builds ascii for one tile as it faces
+    private static String tileAscii(CDominoes tile, Orientation facing) {
+        return "[" + tile.firstValue(facing) + "|" + tile.secondValue(facing) + "]";
     }
 
     // builds ascii for many tiles
@@ -173,41 +398,41 @@ public final class ConsoleLogger {
 
     // renders the chain with arrows
     private static String renderChain() {
-        if (chainOrder.isEmpty()) return "—";
-        StringBuilder out = new StringBuilder();
-        for (int i = 0; i < chainOrder.size(); i++) {
-            if (i > 0) out.append(" -> ");
-            out.append(chainOrder.get(i));
+        synchronized (moveLines) {
+            if (chainOrder.isEmpty()) return "—";
+            return String.join(" -> ", chainOrder);
         }
-        return out.toString();
-    }
-
-    // prints a time stamped line
-    private static String stamp(String text) {
-        return "[" + now() + "] " + text;
     }
 
-    // returns a simple time string
-    private static String now() {
-        return LocalTime.now().format(clockFmt);
+    // formats hh:mm:ss, rebuilt once per second
+    private static String clock(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000L);
+        if (second != clockSecond) {
+            int offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochSecond(second)).getTotalSeconds();
+            int ofDay = (int) Math.floorMod(second + offset, 86_400L);
+            clockText = twoDigits(ofDay / 3600) + ":" + twoDigits(ofDay / 60 % 60) + ":" + twoDigits(ofDay % 60);
+            clockSecond = second;
+        }
+        return clockText;
     }
 
-    // pads a small label for neat columns
-    private static String padRight(String text, int width) {
-        if (text.length() >= width) return text;
-        StringBuilder sb = new StringBuilder(text);
-        while (sb.length() < width) sb.append(' ');
-        return sb.toString();
+    // pads a clock field to two digits
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
     }
 
-    // maps side to a friendly label
+    // maps side to a padded label for neat columns
     private static String sideLabel(TurnManager.Side side) {
         if (side == null) return "Unknown";
-        return side == TurnManager.Side.PLAYER ? "Player" : "Computer";
+        return side == TurnManager.Side.PLAYER ? "Player " : "Computer";
     }
 
-    // prints to console
-    private static void println(String s) {
-        System.out.println(s);
+    // reads -Ddominoes.log=debug|info|warn|off, info by default
+    private static Level levelFromProperty() {
+        String name = System.getProperty("dominoes.log", "info");
+        for (Level candidate : Level.values()) {
+            if (candidate.name().equalsIgnoreCase(name)) return candidate;
+        }
+        return Level.INFO;
     }
 }
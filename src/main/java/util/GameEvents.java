@@ -0,0 +1,167 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    flight recorder events for engine work, off unless a profile turns them on
+    the bundled /jfr/dominoes.jfc enables them; layer it over the jdk default:
+        -XX:StartFlightRecording:settings=default,settings=dominoes.jfc,filename=game.jfr
+    or run with -Ddominoes.jfr=game.jfr and Main starts the same recording,
+    written when the client exits
+*/
+public final class GameEvents {
+
+    public static final String PROFILE = "/jfr/dominoes.jfc";
+    public static final String RECORDING_PROPERTY = "dominoes.jfr";
+
+    private GameEvents() {}
+
+    @Name("dominoes.PlacementCommit")
+    @Label("Placement Commit")
+    @Category("Dominoes")
+    @Description("A tile committed to the table, from drop to anchors rebuilt, or refused by the engine")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class PlacementCommit extends Event {
+        @Label("Tile") public int tile;
+        @Label("Row") public int row;
+        @Label("Column") public int col;
+        @Label("Vertical") public boolean vertical;
+        @Label("Anchors Before") public int anchorsBefore;
+        @Label("Anchors After") public int anchorsAfter;
+        @Label("Tiles On Table") public int placed;
+        @Label("Rejected") public boolean rejected;
+    }
+
+    @Name("dominoes.AnchorRebuild")
+    @Label("Anchor Rebuild")
+    @Category("Dominoes")
+    @Description("Every open end recomputed from the placed tiles, or skipped on an unsized grid")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class AnchorRebuild extends Event {
+        @Label("Anchors Before") public int anchorsBefore;
+        @Label("Anchors After") public int anchorsAfter;
+        @Label("Tiles Scanned") public int tilesScanned;
+        @Label("Skipped") public boolean skipped;
+    }
+
+    @Name("dominoes.AiDecision")
+    @Label("AI Decision")
+    @Category("Dominoes")
+    @Description("One AI move search, from snapshot to answer")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class AiDecision extends Event {
+        @Label("Strategy") public String strategy;
+        @Label("Budget") @Timespan(Timespan.MILLISECONDS) public long budget;
+        @Label("Search Time") @Timespan(Timespan.NANOSECONDS) public long searchTime;
+        @Label("Nodes Searched") public long nodes;
+        @Label("Depth") public int depth;
+        @Label("Hand Tiles") public int handTiles;
+        @Label("Endgame Solve") public boolean endgame;
+        @Label("Cancelled") public boolean cancelled;
+    }
+
+    @Name("dominoes.BoneyardDraw")
+    @Label("Boneyard Draw")
+    @Category("Dominoes")
+    @Description("A tile drawn from the boneyard")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class BoneyardDraw extends Event {
+        @Label("Side") public String side;
+        @Label("Tile") public int tile;
+        @Label("Left In Boneyard") public int left;
+    }
+
+    @Name("dominoes.SceneTransition")
+    @Label("Scene Transition")
+    @Category("Dominoes")
+    @Description("A crossfade into a new scene root, from snapshot to fade end")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class SceneTransition extends Event {
+        @Label("From") public String from;
+        @Label("To") public String to;
+        @Label("Snapshot Time") @Timespan(Timespan.NANOSECONDS) public long snapshotTime;
+        @Label("Snapshot Size") @DataAmount public long snapshotBytes;
+    }
+
+    @Name("dominoes.ImageLoad")
+    @Label("Image Load")
+    @Category("Dominoes")
+    @Description("An image decoded, in the background or on the calling thread")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ImageLoad extends Event {
+        @Label("Url") public String url;
+        @Label("Background") public boolean background;
+        @Label("Width") public int width;
+        @Label("Height") public int height;
+        @Label("Decoded Size") @DataAmount public long decodedBytes;
+        @Label("Failed") public boolean failed;
+    }
+
+    // records a draw; cheap when the event is off
+    public static void boneyardDraw(String side, int tileId, int left) {
+        BoneyardDraw event = new BoneyardDraw();
+        if (!event.shouldCommit()) return;
+        event.side = side;
+        event.tile = tileId;
+        event.left = left;
+        event.commit();
+    }
+
+    // starts a recording when -Ddominoes.jfr names a file
+    public static Recording recordFromProperty() {
+        String file = System.getProperty(RECORDING_PROPERTY);
+        if (file == null || file.isBlank()) return null;
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(profile().getSettings());
+
+            Recording recording = new Recording(settings);
+            recording.setName("dominoes");
+            Path destination = Paths.get(file).toAbsolutePath();
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("recording to " + destination);
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException failed) {
+            System.err.println("flight recording not started: " + failed.getMessage());
+            return null;
+        }
+    }
+
+    // reads the bundled settings profile
+    public static Configuration profile() throws IOException, ParseException {
+        InputStream in = GameEvents.class.getResourceAsStream(PROFILE);
+        if (in == null) throw new IOException("missing " + PROFILE);
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package util;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.Orientation;
+import models.TileSet;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+    append-only binary record of whole games, for replay and analytics
+    file: "DJNL", a version byte, then one frame per game
+    frame: varint payload length, then the payload
+    payload: varint game seed (zigzag), varint game index, first mover byte,
+             varint player mask, varint ai mask, then events until END
+    event: varint (value << 2 | kind)
+           PLAY value is the tile id, then facing byte and zigzag varints for
+                row and col change since the last play, halfX and halfY
+           DRAW value is the tile id, PASS has none, END value is the outcome
+    the mover is never stored; replaying the rules tells whose turn it is
+*/
+public final class GameJournal implements Closeable {
+
+    public static final int PLAY = 0, DRAW = 1, PASS = 2, END = 3;
+
+    private static final byte[] MAGIC = { 'D', 'J', 'N', 'L' };
+    private static final int VERSION = 1;
+    // a real game frame is well under a kilobyte
+    private static final int MAX_FRAME = 1 << 16;
+    private static final Orientation[] FACINGS = Orientation.values();
+    private static final Side[] SIDES = Side.values();
+    private static final GameState.Outcome[] OUTCOMES = GameState.Outcome.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long syncNanos;
+    private long lastSync = System.nanoTime();
+    private long games;
+
+    private GameJournal(FileChannel channel, int bufferBytes, long syncMillis) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        this.syncNanos = syncMillis * 1_000_000L;
+    }
+
+    // opens for appending, writing the header into a new file
+    // an existing file must be a journal; a torn last frame is cut off first
+    public static GameJournal open(Path path, long syncMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            GameJournal journal = new GameJournal(channel, 1 << 20, Math.max(0, syncMillis));
+            if (channel.size() == 0) {
+                journal.buffer.put(MAGIC).put((byte) VERSION);
+            } else {
+                long end = lastCompleteFrameEnd(channel);
+                if (end < channel.size()) channel.truncate(end);
+                channel.position(end);
+            }
+            return journal;
+        } catch (IOException | RuntimeException failed) {
+            channel.close();
+            throw failed;
+        }
+    }
+
+    // checks the header and walks frame lengths to the end of the last whole frame
+    private static long lastCompleteFrameEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 1);
+        if (size < header.capacity()) throw new IOException("not a game journal: too short");
+        while (header.hasRemaining()) channel.read(header, header.position());
+        byte[] bytes = header.array();
+        if (!Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC) || bytes[MAGIC.length] != VERSION) {
+            throw new IOException("not a game journal, or an unknown version");
+        }
+
+        // the stream shares the channel's position; it is not closed here
+        channel.position(bytes.length);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        long end = bytes.length;
+        while (end < size) {
+            long length = 0;
+            int lengthBytes = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.read();
+                if (b < 0) return end;
+                lengthBytes++;
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+                if (shift > 28) throw new IOException("corrupt frame length at byte " + end);
+            }
+            if (length > MAX_FRAME) throw new IOException("corrupt frame length at byte " + end);
+            if (end + lengthBytes + length > size) return end;
+            in.skipNBytes(length);
+            end += lengthBytes + length;
+        }
+        return end;
+    }
+
+    // frames written through this journal since it opened
+    public synchronized long games() {
+        return games;
+    }
+
+    // appends one finished game; may write and sync the buffer
+    public synchronized void append(Recorder game) throws IOException {
+        int length = game.length;
+        // readers treat longer frames as corrupt, so never write one
+        if (length > MAX_FRAME) throw new IOException("game of " + length + " bytes is over the " + MAX_FRAME + " byte frame limit");
+        if (buffer.remaining() < length + 5) drain();
+        if (buffer.remaining() < length + 5) {
+            // bigger than the whole buffer: write it straight through
+            ByteBuffer prefix = ByteBuffer.allocate(5);
+            putVarint(prefix, length);
+            prefix.flip();
+            writeFully(prefix);
+            writeFully(ByteBuffer.wrap(game.bytes, 0, length));
+        } else {
+            putVarint(buffer, length);
+            buffer.put(game.bytes, 0, length);
+        }
+        games++;
+        if (syncNanos > 0 && System.nanoTime() - lastSync >= syncNanos) sync();
+    }
+
+    // writes buffered frames and forces them to disk
+    public synchronized void sync() throws IOException {
+        drain();
+        channel.force(false);
+        lastSync = System.nanoTime();
+    }
+
+    @Override public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // hands buffered bytes to the channel
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    // loops until the channel took every byte
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+
+    // unsigned base-128 varint into a buffer
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    // encodes one game into a reusable byte array; one per thread
+    public static final class Recorder {
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int lastRow, lastCol;
+
+        // clears the last game and writes the deal
+        public Recorder start(long seed, long index, Side first, long playerMask, long aiMask) {
+            length = 0;
+            lastRow = 0;
+            lastCol = 0;
+            varint(zigzag(seed));
+            varint(index);
+            put(first.ordinal());
+            varint(playerMask);
+            varint(aiMask);
+            return this;
+        }
+
+        // the mover drew a tile from the boneyard
+        public void draw(int tileId) {
+            varint((long) tileId << 2 | DRAW);
+        }
+
+        // the mover passed
+        public void pass() {
+            varint(PASS);
+        }
+
+        // the mover played a move
+        public void play(BoardEngine.Move move) {
+            BoardEngine.Anchor anchor = move.anchor;
+            play(move.tile.getId(), move.orientation, anchor.row, anchor.col, anchor.halfX, anchor.halfY);
+        }
+
+        // the mover placed a tile at a slot
+        public void play(int tileId, Orientation facing, int row, int col, int halfX, int halfY) {
+            varint((long) tileId << 2 | PLAY);
+            put(facing.ordinal());
+            varint(zigzag(row - lastRow));
+            varint(zigzag(col - lastCol));
+            varint(zigzag(halfX));
+            varint(zigzag(halfY));
+            lastRow = row;
+            lastCol = col;
+        }
+
+        // the game ended
+        public void end(GameState.Outcome outcome) {
+            varint((long) outcome.ordinal() << 2 | END);
+        }
+
+        // bytes encoded for this game so far
+        public int length() {
+            return length;
+        }
+
+        // appends a varint, growing the array when needed
+        private void varint(long value) {
+            if (bytes.length - length < 10) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        // appends one raw byte
+        private void put(int value) {
+            if (length == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[length++] = (byte) value;
+        }
+    }
+
+    // maps signed values so small magnitudes stay short
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // undoes zigzag
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // opens a journal for reading, checking the header
+    public static Reader read(Path path) throws IOException {
+        return new Reader(Files.newInputStream(path));
+    }
+
+    // walks a journal game by game, event by event
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private byte[] frame = new byte[256];
+        private int frameLength, at;
+        private int lastRow, lastCol;
+
+        private long seed, index;
+        private Side first;
+        private long playerMask, aiMask;
+
+        private int tileId;
+        private Orientation facing;
+        private int row, col, halfX, halfY;
+        private GameState.Outcome outcome;
+
+        Reader(InputStream raw) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(raw, 1 << 16));
+            byte[] header = new byte[MAGIC.length + 1];
+            try {
+                in.readFully(header);
+            } catch (EOFException empty) {
+                in.close();
+                throw new IOException("not a game journal: too short");
+            }
+            if (!Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC) || header[MAGIC.length] != VERSION) {
+                in.close();
+                throw new IOException("not a game journal, or an unknown version");
+            }
+        }
+
+        // loads the next game; false at the end or a torn last frame
+        public boolean nextGame() throws IOException {
+            long length = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.read();
+                if (b < 0) return false;
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+                if (shift > 28) throw new IOException("corrupt frame length");
+            }
+            if (length > MAX_FRAME) throw new IOException("corrupt frame length");
+            if (length > frame.length) frame = new byte[(int) Math.max(length, frame.length * 2L)];
+            try {
+                in.readFully(frame, 0, (int) length);
+            } catch (EOFException torn) {
+                return false;
+            }
+            frameLength = (int) length;
+            at = 0;
+            lastRow = 0;
+            lastCol = 0;
+            seed = unzigzag(varint());
+            index = varint();
+            first = SIDES[ordinal(readByte(), SIDES.length)];
+            playerMask = varint();
+            aiMask = varint();
+            return true;
+        }
+
+        // decodes the next event and returns its kind
+        public int nextEvent() throws IOException {
+            long head = varint();
+            int kind = (int) (head & 3);
+            int value = (int) (head >>> 2);
+            switch (kind) {
+                case PLAY:
+                    tileId = ordinal(value, TileSet.TILE_COUNT);
+                    facing = FACINGS[ordinal(readByte(), FACINGS.length)];
+                    row = lastRow + (int) unzigzag(varint());
+                    col = lastCol + (int) unzigzag(varint());
+                    halfX = (int) unzigzag(varint());
+                    halfY = (int) unzigzag(varint());
+                    lastRow = row;
+                    lastCol = col;
+                    break;
+                case DRAW:
+                    tileId = ordinal(value, TileSet.TILE_COUNT);
+                    break;
+                case END:
+                    outcome = OUTCOMES[ordinal(value, OUTCOMES.length)];
+                    break;
+                default:
+                    break;
+            }
+            return kind;
+        }
+
+        public long seed()               { return seed; }
+        public long index()              { return index; }
+        public Side first()              { return first; }
+        public long playerMask()         { return playerMask; }
+        public long aiMask()             { return aiMask; }
+        public long boneyardMask()       { return TileSet.ALL & ~(playerMask | aiMask); }
+        public int tileId()              { return tileId; }
+        public Orientation facing()      { return facing; }
+        public int row()                 { return row; }
+        public int col()                 { return col; }
+        public int halfX()               { return halfX; }
+        public int halfY()               { return halfY; }
+        public GameState.Outcome outcome() { return outcome; }
+
+        // reads one byte from the loaded frame
+        private int readByte() throws IOException {
+            if (at >= frameLength) throw new IOException("corrupt frame");
+            return frame[at++] & 0xFF;
+        }
+
+        // rejects an index a good frame never holds
+        private static int ordinal(int value, int count) throws IOException {
+            if (value < 0 || value >= count) throw new IOException("corrupt frame");
+            return value;
+        }
+
+        // reads a varint from the loaded frame
+        private long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (at >= frameLength) throw new IOException("event runs past its frame");
+                int b = frame[at++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("corrupt varint");
+        }
+
+        @Override public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package util;
+
+import javax.management.ConstructorParameters;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    runtime counters for a live client, read with jconsole over jmx
+    hot paths only add to LongAdders; summaries are worked out when read
+*/
+public final class GameMetrics implements GameMetricsMXBean {
+
+    public static final String OBJECT_NAME = "dominoes:type=GameMetrics";
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final Histogram aiThink = new Histogram(1e6);
+    private final Histogram placement = new Histogram(1e6);
+    private final Histogram rebuildAnchors = new Histogram(1e6);
+    private final Histogram anchorsPerMove = new Histogram(1);
+    private final Histogram drawsPerGame = new Histogram(1);
+    private final Histogram fxPulse = new Histogram(1e6);
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder drawsThisGame = new LongAdder();
+
+    private GameMetrics() {}
+
+    // the one instance every caller records into
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    // registers with the platform server; false if jmx refused
+    public static boolean register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+            return true;
+        } catch (JMException | SecurityException refused) {
+            System.err.println("metrics not registered: " + refused.getMessage());
+            return false;
+        }
+    }
+
+    // one ai decision, from snapshot to chosen move
+    public void aiThink(long nanos)            { aiThink.record(nanos); }
+    // one commitPlacementAt call
+    public void placement(long nanos)          { placement.record(nanos); }
+    // one rebuildAnchors call
+    public void rebuildAnchors(long nanos)     { rebuildAnchors.record(nanos); }
+    // open anchors left after a move
+    public void anchorsAfterMove(int anchors)  { anchorsPerMove.record(anchors); }
+    // css and layout part of one javafx pulse
+    public void fxPulse(long nanos)            { fxPulse.record(nanos); }
+
+    // a new game was dealt
+    public void gameStarted() {
+        gamesStarted.increment();
+        drawsThisGame.reset();
+    }
+
+    // someone drew from the boneyard
+    public void draw() {
+        draws.increment();
+        drawsThisGame.increment();
+    }
+
+    // the game reached its final result
+    public void gameFinished() {
+        gamesFinished.increment();
+        drawsPerGame.record(drawsThisGame.sumThenReset());
+    }
+
+    @Override public Summary getAiThinkMillis()         { return aiThink.summary(); }
+    @Override public Summary getPlacementMillis()       { return placement.summary(); }
+    @Override public Summary getRebuildAnchorsMillis()  { return rebuildAnchors.summary(); }
+    @Override public Summary getAnchorsPerMove()        { return anchorsPerMove.summary(); }
+    @Override public Summary getDrawsPerGame()          { return drawsPerGame.summary(); }
+    @Override public Summary getFxPulseMillis()         { return fxPulse.summary(); }
+    @Override public long getGamesStarted()             { return gamesStarted.sum(); }
+    @Override public long getGamesFinished()            { return gamesFinished.sum(); }
+    @Override public long getDraws()                    { return draws.sum(); }
+
+    @Override public void reset() {
+        aiThink.reset();
+        placement.reset();
+        rebuildAnchors.reset();
+        anchorsPerMove.reset();
+        drawsPerGame.reset();
+        fxPulse.reset();
+        gamesStarted.reset();
+        gamesFinished.reset();
+        draws.reset();
+        drawsThisGame.reset();
+    }
+
+    // a histogram's shape when read, already scaled to its unit
+    public static final class Summary {
+        private final long count;
+        private final double mean, p50, p90, p99, max;
+
+        @ConstructorParameters({"count", "mean", "p50", "p90", "p99", "max"})
+        public Summary(long count, double mean, double p50, double p90, double p99, double max) {
+            this.count = count; this.mean = mean;
+            this.p50 = p50; this.p90 = p90; this.p99 = p99; this.max = max;
+        }
+
+        public long getCount()   { return count; }
+        public double getMean()  { return mean; }
+        public double getP50()   { return p50; }
+        public double getP90()   { return p90; }
+        public double getP99()   { return p99; }
+        public double getMax()   { return max; }
+
+        @Override public String toString() {
+            return String.format("count=%d mean=%.3f p50=%.3f p90=%.3f p99=%.3f max=%.3f", count, mean, p50, p90, p99, max);
+        }
+    }
+
+    // log buckets with eight steps per power of two, about 12% wide
+    static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+        private final double scale;
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        // values are divided by scale when read, e.g. 1e6 for nanos to millis
+        Histogram(double scale) {
+            this.scale = scale;
+            for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+        }
+
+        // adds one value; negatives count as zero
+        void record(long value) {
+            if (value < 0) value = 0;
+            buckets[indexOf(value)].increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        // small values get their own bucket, larger ones share by exponent
+        static int indexOf(long value) {
+            if (value < SUB) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+            return (exponent - SUB_BITS + 1) * SUB + sub;
+        }
+
+        // smallest value that lands in a bucket
+        static long lowestIn(int index) {
+            if (index < SUB) return index;
+            int exponent = index / SUB + SUB_BITS - 1;
+            return (long) (SUB + index % SUB) << (exponent - SUB_BITS);
+        }
+
+        // reads counts once and scales the result
+        Summary summary() {
+            long[] seen = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += seen[i] = buckets[i].sum();
+            long largest = max.get();
+            if (n == 0) return new Summary(0, 0, 0, 0, 0, 0);
+            return new Summary(n, total.sum() / scale / n,
+                    percentile(seen, n, 0.50, largest) / scale,
+                    percentile(seen, n, 0.90, largest) / scale,
+                    percentile(seen, n, 0.99, largest) / scale,
+                    largest / scale);
+        }
+
+        // top of the bucket holding the rank, capped at the max
+        private static double percentile(long[] seen, long n, double q, long largest) {
+            long rank = (long) Math.ceil(q * n);
+            long running = 0;
+            for (int i = 0; i < seen.length; i++) {
+                running += seen[i];
+                if (running >= rank) {
+                    long top = i + 1 < seen.length ? lowestIn(i + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(top, largest);
+                }
+            }
+            return largest;
+        }
+
+        // zeroes every bucket
+        void reset() {
+            for (LongAdder bucket : buckets) bucket.reset();
+            total.reset();
+            max.reset();
+        }
+    }
+}
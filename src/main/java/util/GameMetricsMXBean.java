@@ -0,0 +1,22 @@
+package util;
+
+/*
+    what jconsole shows under dominoes:type=GameMetrics
+    times are in milliseconds, counts are plain numbers
+*/
+public interface GameMetricsMXBean {
+
+    GameMetrics.Summary getAiThinkMillis();
+    GameMetrics.Summary getPlacementMillis();
+    GameMetrics.Summary getRebuildAnchorsMillis();
+    GameMetrics.Summary getAnchorsPerMove();
+    GameMetrics.Summary getDrawsPerGame();
+    GameMetrics.Summary getFxPulseMillis();
+
+    long getGamesStarted();
+    long getGamesFinished();
+    long getDraws();
+
+    // zeroes every counter and histogram
+    void reset();
+}
@@ -0,0 +1,152 @@
+package util;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.CDominoes;
+import models.Orientation;
+import models.TileSet;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+    rebuilds a journaled game step by step on a headless GameState
+    every draw, pass and play is one undo step, so seeking back is undoTo
+    and seeking forward replays; nothing is animated or re-dealt
+    each step is checked against the table rules: play if you can,
+    else draw, else pass, and only onto a free matching anchor
+*/
+public final class GameReplay {
+
+    // one journaled game, decoded into flat arrays
+    public static final class Game {
+        public final long seed;
+        public final long index;
+        public final Side first;
+        public final long playerMask;
+        public final long aiMask;
+        public final GameState.Outcome outcome;
+        // kind | tile << 2 | facing << 7 per event
+        private final int[] events;
+        // row, col, halfX, halfY per event; unused for draws and passes
+        private final int[] slots;
+
+        private Game(long seed, long index, Side first, long playerMask, long aiMask,
+                     GameState.Outcome outcome, int[] events, int[] slots) {
+            this.seed = seed; this.index = index; this.first = first;
+            this.playerMask = playerMask; this.aiMask = aiMask; this.outcome = outcome;
+            this.events = events; this.slots = slots;
+        }
+
+        // decodes the game the reader just loaded
+        public static Game read(GameJournal.Reader reader) throws IOException {
+            int[] events = new int[64];
+            int[] slots = new int[64 * 4];
+            int count = 0;
+            int kind;
+            while ((kind = reader.nextEvent()) != GameJournal.END) {
+                if (count == events.length) {
+                    events = Arrays.copyOf(events, count * 2);
+                    slots = Arrays.copyOf(slots, count * 8);
+                }
+                int packed = kind;
+                if (kind == GameJournal.PLAY) {
+                    packed |= reader.tileId() << 2 | reader.facing().ordinal() << 7;
+                    slots[count * 4] = reader.row();
+                    slots[count * 4 + 1] = reader.col();
+                    slots[count * 4 + 2] = reader.halfX();
+                    slots[count * 4 + 3] = reader.halfY();
+                } else if (kind == GameJournal.DRAW) {
+                    packed |= reader.tileId() << 2;
+                }
+                events[count++] = packed;
+            }
+            return new Game(reader.seed(), reader.index(), reader.first(), reader.playerMask(), reader.aiMask(),
+                    reader.outcome(), Arrays.copyOf(events, count), Arrays.copyOf(slots, count * 4));
+        }
+
+        // number of draws, passes and plays
+        public int length() {
+            return events.length;
+        }
+    }
+
+    private static final Orientation[] FACINGS = Orientation.values();
+
+    private final Game game;
+    private final GameState state;
+
+    // starts at the deal, before the first step
+    public GameReplay(Game game) {
+        this.game = game;
+        this.state = new GameState(new BoardEngine(), game.playerMask, game.aiMask,
+                TileSet.ALL & ~(game.playerMask | game.aiMask), game.first);
+    }
+
+    public Game game()        { return game; }
+    public GameState state()  { return state; }
+    // steps applied so far
+    public int position()     { return state.depth(); }
+
+    // moves to just after step k; throws if a step breaks the rules
+    public GameState seek(int k) {
+        if (k < 0 || k > game.length()) {
+            throw new IllegalArgumentException("step " + k + " outside 0.." + game.length());
+        }
+        if (k < position()) state.undoTo(k);
+        while (position() < k) step();
+        return state;
+    }
+
+    // applies the next step; throws if it breaks the rules
+    public void step() {
+        int at = position();
+        if (at >= game.length()) throw new IllegalStateException("game " + game.index + " has no step " + at);
+        int event = game.events[at];
+        int tileId = (event >>> 2) & 0x1F;
+        int kind = event & 3;
+        if ((kind == GameJournal.DRAW || kind == GameJournal.PLAY) && tileId >= TileSet.TILE_COUNT) {
+            fail(at, "no tile with id " + tileId);
+        }
+        switch (kind) {
+            case GameJournal.DRAW:
+                if (!state.mustDraw()) fail(at, "draw while a tile was playable or the game was over");
+                if (!state.draw(tileId)) fail(at, "draw of tile " + tileId + " not in the boneyard");
+                break;
+            case GameJournal.PASS:
+                if (!state.pass()) fail(at, "pass while a tile could be played or drawn");
+                break;
+            default: {
+                Orientation facing = FACINGS[(event >>> 7) & 3];
+                int s = at * 4;
+                BoardEngine.Move move = state.board().moveAt(CDominoes.of(tileId), facing,
+                        game.slots[s], game.slots[s + 1], game.slots[s + 2], game.slots[s + 3]);
+                if (move == null) fail(at, "tile " + tileId + " does not fit at row " + game.slots[s] + ", col " + game.slots[s + 1]);
+                if (!state.play(move)) fail(at, "tile " + tileId + " not in the mover's hand, or the game was over");
+                break;
+            }
+        }
+    }
+
+    // replays the whole game; null when legal and the outcome matches
+    public static String verify(Game game) {
+        GameReplay replay;
+        try {
+            replay = new GameReplay(game);
+            replay.seek(game.length());
+        } catch (IllegalStateException illegal) {
+            return illegal.getMessage();
+        } catch (RuntimeException broken) {
+            return "game " + game.index + " could not be replayed: " + broken;
+        }
+        if (replay.state.outcome() != game.outcome) {
+            return "game " + game.index + " ends " + replay.state.outcome() + ", journal says " + game.outcome;
+        }
+        return null;
+    }
+
+    // reports a broken step with its game and position
+    private void fail(int at, String reason) {
+        throw new IllegalStateException("game " + game.index + " step " + at + ": " + reason);
+    }
+}
@@ -1 +1,233 @@
 package util;
+
+import controllers.TurnManager.Side;
+import models.BoardEngine;
+import models.TileSet;
+import models.Zobrist;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+    headless game: board, both hands, boneyard and side to move
+    follows the table rules: play if you can, else draw, else pass
+    keeps a zobrist hash patched by xor on every play, draw and pass
+*/
+public final class GameState {
+
+    public enum Outcome { ONGOING, PLAYER_WON, AI_WON, BLOCKED }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    private static final int PLAY = 0, DRAW = 1, PASS = 2;
+
+    private final BoardEngine board;
+    private long playerMask;
+    private long aiMask;
+    private long boneyardMask;
+    private Side toMove;
+    private int passesInRow;
+    private Outcome outcome = Outcome.ONGOING;
+
+    // hands, boneyard size and side; the board keeps its own part
+    private long hash;
+
+    // packed undo steps: kind, tile, passes before, outcome before
+    private int[] steps = new int[64];
+    private int stepCount;
+
+    // starts a game from dealt hands and the undealt tiles
+    public GameState(BoardEngine board, long playerMask, long aiMask, long boneyardMask, Side toMove) {
+        this.board = board;
+        this.playerMask = playerMask;
+        this.aiMask = aiMask;
+        this.boneyardMask = boneyardMask;
+        this.toMove = toMove;
+        this.hash = Zobrist.hand(false, playerMask) ^ Zobrist.hand(true, aiMask)
+                ^ Zobrist.boneyardSize(TileSet.count(boneyardMask))
+                ^ (toMove == Side.AI ? Zobrist.aiToMove() : 0L);
+        if (board.isEmpty() && board.anchors().isEmpty()) board.rebuildAnchors();
+        outcome = winnerAfter(null);
+    }
+
+    public BoardEngine board()        { return board; }
+    public Side toMove()              { return toMove; }
+    public Outcome outcome()          { return outcome; }
+    public boolean isOver()           { return outcome != Outcome.ONGOING; }
+    public long playerMask()          { return playerMask; }
+    public long aiMask()              { return aiMask; }
+    public long boneyardMask()        { return boneyardMask; }
+    public int boneyardSize()         { return TileSet.count(boneyardMask); }
+    public int passesInRow()          { return passesInRow; }
+
+    // copies the position onto a detached board, without undo history
+    public GameState copy() {
+        GameState copy = new GameState(board.snapshot(), playerMask, aiMask, boneyardMask, toMove);
+        copy.passesInRow = passesInRow;
+        copy.outcome = outcome;
+        return copy;
+    }
+
+    // returns how many steps can be undone
+    public int depth()                { return stepCount; }
+
+    // undoes steps until only depth remain
+    public void undoTo(int depth) {
+        while (stepCount > depth) undo();
+    }
+
+    // swaps in new hands and boneyard, e.g. a fresh guess at hidden tiles
+    // the outcome stays as is: the table only settles a winner when a turn ends
+    public void redeal(long playerMask, long aiMask, long boneyardMask) {
+        hash ^= Zobrist.hand(false, this.playerMask) ^ Zobrist.hand(true, this.aiMask)
+                ^ Zobrist.boneyardSize(boneyardSize());
+        this.playerMask = playerMask;
+        this.aiMask = aiMask;
+        this.boneyardMask = boneyardMask;
+        hash ^= Zobrist.hand(false, playerMask) ^ Zobrist.hand(true, aiMask)
+                ^ Zobrist.boneyardSize(boneyardSize());
+    }
+
+    // returns the tiles held by one side
+    public long handOf(Side side) {
+        return side == Side.AI ? aiMask : playerMask;
+    }
+
+    // returns the full position key
+    public long hash() {
+        return hash ^ board.hash();
+    }
+
+    // true when the side to move holds a playable tile
+    public boolean canPlay() {
+        return (handOf(toMove) & board.playableTileMask()) != 0;
+    }
+
+    // true when the side to move must draw before playing
+    public boolean mustDraw() {
+        return !isOver() && !canPlay() && boneyardMask != 0;
+    }
+
+    // lists legal plays for the side to move
+    public List<BoardEngine.Move> legalMoves() {
+        return board.legalMoves(handOf(toMove));
+    }
+
+    // places a tile from the mover's hand and passes the turn
+    public boolean play(BoardEngine.Move move) {
+        int tileId = move.tile.getId();
+        if (isOver() || !TileSet.contains(handOf(toMove), tileId)) return false;
+        if (board.play(move) == null) return false;
+
+        push(PLAY, tileId);
+        takeFromHand(toMove, tileId);
+        passesInRow = 0;
+        endTurn();
+        return true;
+    }
+
+    // moves a chosen boneyard tile into the mover's hand
+    public boolean draw(int tileId) {
+        if (isOver() || !TileSet.contains(boneyardMask, tileId)) return false;
+
+        push(DRAW, tileId);
+        hash ^= Zobrist.boneyardSize(TileSet.count(boneyardMask));
+        boneyardMask = TileSet.remove(boneyardMask, tileId);
+        hash ^= Zobrist.boneyardSize(TileSet.count(boneyardMask));
+        giveToHand(toMove, tileId);
+        return true;
+    }
+
+    // draws a uniformly random boneyard tile, returns its id or -1
+    public int drawRandom(SplittableRandom random) {
+        int size = boneyardSize();
+        if (size == 0) return -1;
+        int tileId = TileSet.nth(boneyardMask, random.nextInt(size));
+        draw(tileId);
+        return tileId;
+    }
+
+    // gives up the turn when nothing can be played or drawn
+    public boolean pass() {
+        if (isOver() || canPlay() || boneyardMask != 0) return false;
+
+        push(PASS, 0);
+        passesInRow++;
+        endTurn();
+        return true;
+    }
+
+    // takes back the last play, draw or pass
+    public boolean undo() {
+        if (stepCount == 0) return false;
+        int step = steps[--stepCount];
+        int kind = step >>> 24;
+        int tileId = (step >>> 16) & 0xFF;
+        passesInRow = (step >>> 8) & 0xFF;
+        outcome = OUTCOMES[step & 0xFF];
+
+        if (kind != DRAW) {
+            toMove = other(toMove);
+            hash ^= Zobrist.aiToMove();
+        }
+        if (kind == PLAY) {
+            board.undo();
+            giveToHand(toMove, tileId);
+        } else if (kind == DRAW) {
+            takeFromHand(toMove, tileId);
+            hash ^= Zobrist.boneyardSize(TileSet.count(boneyardMask));
+            boneyardMask = TileSet.add(boneyardMask, tileId);
+            hash ^= Zobrist.boneyardSize(TileSet.count(boneyardMask));
+        }
+        return true;
+    }
+
+    // flips the side and settles a winner as the table does
+    private void endTurn() {
+        Side mover = toMove;
+        toMove = other(toMove);
+        hash ^= Zobrist.aiToMove();
+        outcome = winnerAfter(mover);
+        if (outcome == Outcome.ONGOING && passesInRow >= 2) outcome = Outcome.BLOCKED;
+    }
+
+    // an empty hand wins once the boneyard is out; ties go to the last mover
+    private Outcome winnerAfter(Side lastMover) {
+        int playerCount = TileSet.count(playerMask);
+        int aiCount = TileSet.count(aiMask);
+        int boneyardCount = boneyardSize();
+
+        boolean playerWins = playerCount == 0 && ((aiCount == 0 && boneyardCount == 1) || boneyardCount == 0);
+        boolean aiWins = aiCount == 0 && ((playerCount == 0 && boneyardCount == 1) || boneyardCount == 0);
+
+        if (playerWins && !aiWins) return Outcome.PLAYER_WON;
+        if (aiWins && !playerWins) return Outcome.AI_WON;
+        if (playerWins && lastMover != null) return lastMover == Side.PLAYER ? Outcome.PLAYER_WON : Outcome.AI_WON;
+        return Outcome.ONGOING;
+    }
+
+    // records one step for undo
+    private void push(int kind, int tileId) {
+        if (stepCount == steps.length) steps = Arrays.copyOf(steps, stepCount * 2);
+        steps[stepCount++] = kind << 24 | tileId << 16 | passesInRow << 8 | outcome.ordinal();
+    }
+
+    // adds a tile to one hand and its key
+    private void giveToHand(Side side, int tileId) {
+        if (side == Side.AI) aiMask = TileSet.add(aiMask, tileId);
+        else playerMask = TileSet.add(playerMask, tileId);
+        hash ^= Zobrist.handTile(side == Side.AI, tileId);
+    }
+
+    // removes a tile from one hand and its key
+    private void takeFromHand(Side side, int tileId) {
+        if (side == Side.AI) aiMask = TileSet.remove(aiMask, tileId);
+        else playerMask = TileSet.remove(playerMask, tileId);
+        hash ^= Zobrist.handTile(side == Side.AI, tileId);
+    }
+
+    // returns the opposing side
+    public static Side other(Side side) {
+        return side == Side.AI ? Side.PLAYER : Side.AI;
+    }
+}
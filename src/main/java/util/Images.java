@@ -0,0 +1,47 @@
+package util;
+
+import javafx.scene.image.Image;
+
+/*
+    image loading with a flight recorder event around the decode
+    background loads finish on javafx's loader thread, so the event ends there
+*/
+public final class Images {
+
+    private Images() {}
+
+    // loads an image, timing it when the ImageLoad event is on
+    public static Image load(String url, boolean background) {
+        GameEvents.ImageLoad event = new GameEvents.ImageLoad();
+        if (!event.isEnabled()) return new Image(url, background);
+
+        event.begin();
+        Image image = new Image(url, background);
+        if (!background || image.getProgress() >= 1.0) {
+            finish(event, url, background, image);
+        } else {
+            image.progressProperty().addListener((obs, was, now) -> {
+                if (now.doubleValue() >= 1.0) finish(event, url, background, image);
+            });
+        }
+        return image;
+    }
+
+    // loads on the calling thread
+    public static Image load(String url) {
+        return load(url, false);
+    }
+
+    // fills in the decoded size and commits
+    private static void finish(GameEvents.ImageLoad event, String url, boolean background, Image image) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.url = url;
+        event.background = background;
+        event.width = (int) image.getWidth();
+        event.height = (int) image.getHeight();
+        event.decodedBytes = 4L * event.width * event.height;
+        event.failed = image.isError();
+        event.commit();
+    }
+}
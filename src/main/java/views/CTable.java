@@ -2,16 +2,17 @@ package views;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Consumer;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.binding.StringBinding;
 import javafx.beans.value.ObservableNumberValue;
 import javafx.collections.ListChangeListener;
+import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
@@ -32,13 +33,20 @@ import javafx.util.Duration;
 
 import models.AvailablePieces;
 import models.CDominoes;
+import models.GameRandom;
 import models.Hand;
+import models.Orientation;
 import models.TableLayout;
 
+import ai.Difficulty;
+import ai.Strategies;
 import controllers.CPlayer;
 import controllers.AIPlayer;
 import controllers.TurnManager;
 import util.ConsoleLogger;
+import util.GameEvents;
+import util.GameMetrics;
+import util.Images;
 
 public class CTable {
     private final Stage stage;
@@ -46,6 +54,7 @@ public class CTable {
     private final AvailablePieces remainingPieces;
     private final CPlayer player;
     private final TurnManager turnManager;
+    private final GameRandom random;
 
     private AIPlayer aiPlayer;
 
@@ -88,18 +97,21 @@ public class CTable {
     private boolean gameOver = false;
 
     // sets up references for the game table
-    public CTable(Stage stage, Hand hand, AvailablePieces remainingPieces, CPlayer player, TurnManager turnManager) {
+    public CTable(Stage stage, Hand hand, AvailablePieces remainingPieces, CPlayer player, TurnManager turnManager,
+                  GameRandom random) {
         this.stage = stage;
         this.hand = hand;
         this.remainingPieces = remainingPieces;
         this.player = player;
         this.turnManager = turnManager;
+        this.random = random;
     }
 
     // creates the full table view layout
     public Parent createRoot() {
         // starts a fresh console log
-        ConsoleLogger.startGame();
+        ConsoleLogger.startGame(random.seed());
+        GameMetrics.get().gameStarted();
 
         // makes root container and pause overlay
         AnchorPane root = new AnchorPane();
@@ -127,7 +139,7 @@ public class CTable {
         StackPane tablePane = new StackPane();
         var tableImageUrl = getClass().getResource(TABLE_IMAGE);
         if (tableImageUrl != null) {
-            Image tableImage = new Image(tableImageUrl.toExternalForm(), true);
+            Image tableImage = Images.load(tableImageUrl.toExternalForm(), true);
             BackgroundImage tableBackground = new BackgroundImage(
                     tableImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -201,7 +213,20 @@ public class CTable {
         Platform.runLater(tableLayout::forceReseedCenterIfEmpty);
 
         // builds ai controller
-        aiPlayer = new AIPlayer(tableLayout, turnManager, computerStrip, hand, remainingPieces);
+        aiPlayer = new AIPlayer(tableLayout, turnManager, computerStrip, hand, remainingPieces,
+                Strategies.forSeat("dominoes.ai", "first"), Difficulty.fromSystemProperties(), random.ai());
+
+        // ai stops thinking while a menu covers the table
+        BooleanBinding menuOpen = pauseMenu.getView().visibleProperty()
+                .or(settingsMenu.getView().visibleProperty());
+        menuOpen.addListener((o, wasOpen, open) -> {
+            if (open) aiPlayer.pause();
+            else aiPlayer.resume();
+        });
+
+        // leaving through the pause menu ends the ai for good
+        pauseMenu.getResetButton().addEventHandler(ActionEvent.ACTION, e -> aiPlayer.stop());
+        pauseMenu.getQuitButton().addEventHandler(ActionEvent.ACTION, e -> aiPlayer.stop());
 
         // renders dominoes for both hands
         displayDominoes(hand, computerStrip, "AI", aiHandBar);
@@ -210,7 +235,7 @@ public class CTable {
         // builds remaining pieces overlay
         remainingOverlay = new AvailablePiecesOverlay<>(
                 root,
-                () -> remainingPieces.getLeftoverDominoes(),
+                remainingPieces::sortedView,
                 this::renderTinyDomino
         );
         remainingOverlay.setGrid(4, 2);
@@ -254,6 +279,7 @@ public class CTable {
                 String runnerName = winnerSide == WinnerSide.PLAYER ? "Computer" : "Player";
                 List<CDominoes> runnerTiles = winnerSide == WinnerSide.PLAYER ? hand.getAiHand() : hand.getPlayerHand();
                 ConsoleLogger.logFinalResult(winnerName, runnerName, runnerTiles);
+                GameMetrics.get().gameFinished();
 
                 winnerOverlay.show(winnerSide == WinnerSide.PLAYER ? "YOU WON" : "AI WON");
                 return;
@@ -292,6 +318,7 @@ public class CTable {
             String runnerName = initialWinner == WinnerSide.PLAYER ? "Computer" : "Player";
             List<CDominoes> runnerTiles = initialWinner == WinnerSide.PLAYER ? hand.getAiHand() : hand.getPlayerHand();
             ConsoleLogger.logFinalResult(winnerName, runnerName, runnerTiles);
+            GameMetrics.get().gameFinished();
 
             winnerOverlay.show(initialWinner == WinnerSide.PLAYER ? "YOU WON" : "AI WON");
         } else if (turnManager.getTurn() == TurnManager.Side.AI) {
@@ -353,7 +380,7 @@ public class CTable {
 
         var handImageUrl = getClass().getResource(HAND_BAR_IMAGE);
         if (handImageUrl != null) {
-            Image backgroundImage = new Image(handImageUrl.toExternalForm(), true);
+            Image backgroundImage = Images.load(handImageUrl.toExternalForm(), true);
             BackgroundImage handBackgroundImage = new BackgroundImage(
                     backgroundImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -417,7 +444,7 @@ public class CTable {
             var imageUrl = getClass().getResource(tile.getImage());
             if (imageUrl == null) continue;
 
-            Image image = new Image(imageUrl.toExternalForm(), true);
+            Image image = Images.load(imageUrl.toExternalForm(), true);
             ImageView imageView = new ImageView(image);
             imageView.setPreserveRatio(true);
             imageView.setSmooth(true);
@@ -425,9 +452,8 @@ public class CTable {
 
             // keeps tile height tied to bar height
             imageView.fitHeightProperty().bind(bar.heightProperty().subtract(12));
-            imageView.setRotate(tile.getRotationDegrees());
-
             StackPane hitbox = new StackPane(imageView);
+            TableLayout.setFacing(hitbox, Orientation.VERTICAL_UP);
             hitbox.setPadding(new Insets(4));
             HBox.setHgrow(hitbox, Priority.NEVER);
 
@@ -440,7 +466,8 @@ public class CTable {
 
                 // removes tile from model on commit
                 hitbox.getProperties().put("onCommit", (Consumer<CDominoes>) (CDominoes placed) -> {
-                    hand.getPlayerHand().remove(placed);
+                    hand.removeFromPlayer(placed);
+                    if (aiPlayer != null) aiPlayer.observeOpponentPlay(placed);
                     Platform.runLater(this::updateDrawButtonVisibility);
                 });
 
@@ -454,11 +481,10 @@ public class CTable {
     // renders a tiny domino for the overlay
     private Node renderTinyDomino(CDominoes tile) {
         var imageUrl = getClass().getResource(tile.getImage());
-        ImageView imageView = new ImageView(imageUrl != null ? new Image(imageUrl.toExternalForm(), true) : null);
+        ImageView imageView = new ImageView(imageUrl != null ? Images.load(imageUrl.toExternalForm(), true) : null);
         imageView.setPreserveRatio(true);
         imageView.setSmooth(true);
         imageView.setCache(true);
-        imageView.setRotate(tile.getRotationDegrees());
         imageView.setFitHeight(54);
         return new StackPane(imageView);
     }
@@ -482,9 +508,12 @@ public class CTable {
             if (turnManager.getTurn() == TurnManager.Side.PLAYER) {
                 CDominoes drawnTile = drawOneIntoPlayerHand();
 
-                // logs the draw to console
+                // logs the draw and tells the ai what it reveals
                 if (drawnTile != null) {
                     ConsoleLogger.logDraw(TurnManager.Side.PLAYER, drawnTile);
+                    GameMetrics.get().draw();
+                    GameEvents.boneyardDraw(TurnManager.Side.PLAYER.name(), drawnTile.getId(), remainingPieces.size());
+                    if (aiPlayer != null) aiPlayer.observeOpponentDraw();
                 }
 
                 updateDrawButtonVisibility();
@@ -553,7 +582,7 @@ public class CTable {
         // ensures the center starter exists
         tableLayout.forceReseedCenterIfEmpty();
 
-        boolean emptyHand = hand.getPlayerHand().isEmpty();
+        boolean emptyHand = hand.getPlayerCount() == 0;
         boolean hasPlayable = playerHasPlayableStrict();
         boolean canDrawTile = !remainingPieces.isEmpty();
 
@@ -562,21 +591,8 @@ public class CTable {
     }
 
     // checks if any player tile is playable
-    // restores tile facing after probing
     private boolean playerHasPlayableStrict() {
-        if (hand.getPlayerHand().isEmpty()) return false;
-
-        boolean anyPlayable = false;
-        for (CDominoes tile : hand.getPlayerHand()) {
-            String startFacing = tile.getOrientation();
-            var placementOption = tableLayout.findLegalPlacementAnywhere(tile);
-            int rotateGuard = 0;
-            while (!Objects.equals(tile.getOrientation(), startFacing) && rotateGuard++ < 4) {
-                CDominoes.rotateDomino(tile);
-            }
-            if (placementOption.isPresent()) anyPlayable = true;
-        }
-        return anyPlayable;
+        return (hand.getPlayerMask() & tableLayout.playableTileMask()) != 0;
     }
 
     // draws one tile for the player hand
@@ -584,11 +600,11 @@ public class CTable {
         CDominoes drawnTile = remainingPieces.drawRandom();
         if (drawnTile == null) return null;
 
-        hand.getPlayerHand().add(drawnTile);
+        hand.addToPlayer(drawnTile);
 
         var imageUrl = getClass().getResource(drawnTile.getImage());
         if (imageUrl != null) {
-            Image image = new Image(imageUrl.toExternalForm(), true);
+            Image image = Images.load(imageUrl.toExternalForm(), true);
             ImageView imageView = new ImageView(image);
             imageView.setPreserveRatio(true);
             imageView.setSmooth(true);
@@ -605,15 +621,15 @@ public class CTable {
                 });
             }
 
-            imageView.setRotate(drawnTile.getRotationDegrees());
-
             StackPane hitbox = new StackPane(imageView);
+            TableLayout.setFacing(hitbox, Orientation.VERTICAL_UP);
             hitbox.setPadding(new Insets(4));
             HBox.setHgrow(hitbox, Priority.NEVER);
 
             hitbox.getProperties().put("model", drawnTile);
             hitbox.getProperties().put("onCommit", (Consumer<CDominoes>) (CDominoes placed) -> {
-                hand.getPlayerHand().remove(placed);
+                hand.removeFromPlayer(placed);
+                if (aiPlayer != null) aiPlayer.observeOpponentPlay(placed);
                 Platform.runLater(this::updateDrawButtonVisibility);
             });
 
@@ -655,7 +671,7 @@ public class CTable {
 
     // sets carryover tile if exactly one remains
     private void stashCarryoverIfNeededForRunnerUp() {
-        List<CDominoes> leftover = remainingPieces.getLeftoverDominoes();
+        List<CDominoes> leftover = remainingPieces.view();
         if (leftover != null && leftover.size() == 1) {
             ConsoleLogger.setCarryoverForRunnerUp(leftover.get(0));
         } else {
@@ -10,8 +10,10 @@ import javafx.scene.text.Font;
 import javafx.util.Duration;
 import javafx.geometry.Insets;
 import models.AvailablePieces;
+import models.GameRandom;
 import models.Hand;
 import controllers.CPlayer;
+import util.Images;
 
 public class MainMenu {
     private final Stage stage;
@@ -36,13 +38,14 @@ public class MainMenu {
         // set up play button action
         playButton.setOnAction(e -> {
             // reset game state with fresh instances
-            Hand hand = new Hand();
+            GameRandom random = GameRandom.newGame();
+            Hand hand = new Hand(random);
             CPlayer player = new CPlayer();
-            AvailablePieces remainingPieces = new AvailablePieces(hand);
+            AvailablePieces remainingPieces = new AvailablePieces(hand, random.draws());
 
             // build table view and crossfade to it
-            var turnManager = new controllers.TurnManager();
-            var tableRoot = new CTable(stage, hand, remainingPieces, player, turnManager).createRoot();
+            var turnManager = new controllers.TurnManager(random.coin());
+            var tableRoot = new CTable(stage, hand, remainingPieces, player, turnManager, random).createRoot();
             SceneTransition.fadeIntoScene(stage, tableRoot, Duration.millis(600));
         });
 
@@ -62,7 +65,7 @@ public class MainMenu {
         // set background image if available
         var imageUrl = getClass().getResource("/assets/menu/mainmenu.jpg");
         if (imageUrl != null) {
-            Image image = new Image(imageUrl.toExternalForm());
+            Image image = Images.load(imageUrl.toExternalForm());
             Background menuBackground = new Background(new BackgroundImage(
                     image,
                     BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
@@ -11,6 +11,7 @@ import javafx.scene.image.WritableImage;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import util.GameEvents;
 
 public final class SceneTransition {
     private SceneTransition() {}
@@ -18,9 +19,13 @@ public final class SceneTransition {
     public static void fadeIntoScene(Stage stage, Parent nextRoot, Duration duration) {
         Scene scene = stage.getScene();
         Parent currentRoot = scene.getRoot();
+        GameEvents.SceneTransition event = new GameEvents.SceneTransition();
+        event.begin();
 
         // captures a frame of the gameplay so crossfade doesn't seem to jumpy 
+        long snapshotStart = System.nanoTime();
         WritableImage shot = currentRoot.snapshot(new SnapshotParameters(), null);
+        long snapshotTime = System.nanoTime() - snapshotStart;
         ImageView overlay = new ImageView(shot);
         overlay.setPreserveRatio(false);
         overlay.fitWidthProperty().bind(scene.widthProperty());
@@ -35,7 +40,17 @@ public final class SceneTransition {
             new KeyFrame(Duration.ZERO, new KeyValue(overlay.opacityProperty(), 1.0)),
             new KeyFrame(duration,       new KeyValue(overlay.opacityProperty(), 0.0))
         );
-        tl.setOnFinished(e -> scene.setRoot(nextRoot));
+        tl.setOnFinished(e -> {
+            scene.setRoot(nextRoot);
+            event.end();
+            if (event.shouldCommit()) {
+                event.from = currentRoot.getClass().getSimpleName();
+                event.to = nextRoot.getClass().getSimpleName();
+                event.snapshotTime = snapshotTime;
+                event.snapshotBytes = 4L * (long) shot.getWidth() * (long) shot.getHeight();
+                event.commit();
+            }
+        });
         tl.play();
     }
 }